@@ -26,6 +26,7 @@ import thesis.model.exceptions.CheckedIllegalStateException;
 import thesis.model.exceptions.InvalidConfigurationException;
 import thesis.model.exceptions.ParsingException;
 import thesis.model.parser.XmlResult;
+import thesis.model.solver.solutionoptimizer.TerminationCriteria;
 import thesis.view.ViewInterface;
 import thesis.view.viewobjects.*;
 
@@ -471,11 +472,20 @@ public class Controller implements ControllerInterface {
             generalConfiguration.getInitialTemperature(),
             generalConfiguration.getMinTemperature(),
             generalConfiguration.getCoolingRate(),
-            generalConfiguration.getK());
+            generalConfiguration.getK(),
+            getTerminationCriteria(),
+            generalConfiguration.getOptimizationReplicas(),
+            generalConfiguration.getInitialSolutionGenerators());
 
         progressBarManager.startProgressBar(progressBarUUID);
     }
 
+    private TerminationCriteria getTerminationCriteria() {
+        return new TerminationCriteria(generalConfiguration.getTimeLimitSeconds() * 1000L,
+            generalConfiguration.getTargetPenalty(),
+            generalConfiguration.getStagnationLimit());
+    }
+
     @Override
     public void removeProgramEvent() {
         if(chosenProgram == null) {
@@ -519,7 +529,9 @@ public class Controller implements ControllerInterface {
                 generalConfiguration.getInitialTemperature(),
                 generalConfiguration.getMinTemperature(),
                 generalConfiguration.getCoolingRate(),
-                generalConfiguration.getK());
+                generalConfiguration.getK(),
+                getTerminationCriteria(),
+                generalConfiguration.getOptimizationReplicas());
 
             progressBarManager.startProgressBar(progressBarUUID);
         } else {
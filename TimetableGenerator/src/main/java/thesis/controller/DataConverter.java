@@ -144,7 +144,7 @@ public class DataConverter {
         }
 
         List<ViewModel> timetableViewModels = timetableList.stream()
-                .map(t -> new TimetableViewModel(t.getDateOfCreationString(), t.getRuntime(), t.cost().getTotalPenalty(), t.getScheduledLessonList().size(), t.isValid(), t))
+                .map(t -> new TimetableViewModel(t.getDateOfCreationString(), t.getRuntime(), t.cost().getTotalPenalty(), t.getScheduledLessons().size(), t.isValid(), t))
                 .collect(Collectors.toList());
 
         return FXCollections.observableList(timetableViewModels);
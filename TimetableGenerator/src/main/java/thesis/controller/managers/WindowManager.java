@@ -365,7 +365,7 @@ public class WindowManager {
             for (int week = 0; week < maxWeeks; week++) {
                 final int finalWeek = week;
                 // collect active lessons this week
-                List<ScheduledLesson> active = timetable.getScheduledLessonList().stream()
+                List<ScheduledLesson> active = timetable.getScheduledLessons().stream()
                         .filter(l -> {
                             String weeks = l.getWeeksBinaryString();
                             return finalWeek < weeks.length() && weeks.charAt(finalWeek) == '1';
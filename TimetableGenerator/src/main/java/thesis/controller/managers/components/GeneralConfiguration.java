@@ -11,6 +11,11 @@ public class GeneralConfiguration {
     private double minTemperature = 1e-4;
     private double coolingRate = 0.01;
     private int k = 5;
+    private int timeLimitSeconds = 0;    // 0 means no time limit
+    private int targetPenalty = -1;      // -1 means no target penalty
+    private int stagnationLimit = 0;     // 0 means no limit of moves without improvement
+    private int optimizationReplicas = 1; // More than 1 runs parallel tempering instead of simulated annealing
+    private int initialSolutionGenerators = 1; // More than 1 runs a portfolio of generators in parallel
     private int maxHour = 23;
     private int minHour = 8;
     private boolean showInstructions = true;
@@ -61,6 +66,51 @@ public class GeneralConfiguration {
         setUpdateConfigFile();
     }
 
+    public int getTimeLimitSeconds() {
+        return timeLimitSeconds;
+    }
+
+    public void setTimeLimitSeconds(int timeLimitSeconds) {
+        this.timeLimitSeconds = timeLimitSeconds;
+        setUpdateConfigFile();
+    }
+
+    public int getTargetPenalty() {
+        return targetPenalty;
+    }
+
+    public void setTargetPenalty(int targetPenalty) {
+        this.targetPenalty = targetPenalty;
+        setUpdateConfigFile();
+    }
+
+    public int getStagnationLimit() {
+        return stagnationLimit;
+    }
+
+    public void setStagnationLimit(int stagnationLimit) {
+        this.stagnationLimit = stagnationLimit;
+        setUpdateConfigFile();
+    }
+
+    public int getOptimizationReplicas() {
+        return optimizationReplicas;
+    }
+
+    public void setOptimizationReplicas(int optimizationReplicas) {
+        this.optimizationReplicas = optimizationReplicas;
+        setUpdateConfigFile();
+    }
+
+    public int getInitialSolutionGenerators() {
+        return initialSolutionGenerators;
+    }
+
+    public void setInitialSolutionGenerators(int initialSolutionGenerators) {
+        this.initialSolutionGenerators = initialSolutionGenerators;
+        setUpdateConfigFile();
+    }
+
     public int getMaxHour() {
         return maxHour;
     }
@@ -30,6 +30,11 @@ public class ConfigWindow {
     private TextField minTempField;
     private TextField coolingRateField;
     private TextField kField;
+    private TextField timeLimitField;
+    private TextField targetPenaltyField;
+    private TextField stagnationLimitField;
+    private TextField replicasField;
+    private TextField generatorsField;
 
     // Database Section
     private TextField syncTimeField;
@@ -70,6 +75,26 @@ public class ConfigWindow {
                 generalConfiguration.setCoolingRate(Double.parseDouble(coolingRateField.getText()));
                 generalConfiguration.setK(Integer.parseInt(kField.getText()));
 
+                int timeLimit = Integer.parseInt(timeLimitField.getText());
+                int targetPenalty = Integer.parseInt(targetPenaltyField.getText());
+                int stagnationLimit = Integer.parseInt(stagnationLimitField.getText());
+
+                if(timeLimit < 0) throw new RuntimeException("The Time Limit specified should be 0 (no limit) or a positive number of seconds");
+                if(targetPenalty < -1) throw new RuntimeException("The Target Penalty specified should be -1 (no target) or a non negative penalty");
+                if(stagnationLimit < 0) throw new RuntimeException("The Moves Without Improvement specified should be 0 (no limit) or a positive number of moves");
+
+                generalConfiguration.setTimeLimitSeconds(timeLimit);
+                generalConfiguration.setTargetPenalty(targetPenalty);
+                generalConfiguration.setStagnationLimit(stagnationLimit);
+
+                int replicas = Integer.parseInt(replicasField.getText());
+                if(replicas < 1) throw new RuntimeException("The Parallel Tempering Replicas specified should be 1 (simulated annealing) or more");
+                generalConfiguration.setOptimizationReplicas(replicas);
+
+                int generators = Integer.parseInt(generatorsField.getText());
+                if(generators < 1) throw new RuntimeException("The Initial Solution Generators specified should be 1 or more");
+                generalConfiguration.setInitialSolutionGenerators(generators);
+
                 // Database Section
                 generalConfiguration.setDatabaseSynchronizationTimeMinutes(Integer.parseInt(syncTimeField.getText()));
             } catch (Exception e) {
@@ -147,10 +172,49 @@ public class ConfigWindow {
         HBox firstOptimizAlgorithmRow = new HBox(10, initTempBox, minTempBox);
         firstOptimizAlgorithmRow.setAlignment(Pos.CENTER);
 
+        Label timeLimitLabel = new Label("Time Limit (in seconds, 0 for none):");
+        timeLimitField = new TextField();
+        timeLimitField.setPrefWidth(80);
+        HBox timeLimitBox = new HBox(5, timeLimitLabel, timeLimitField);
+        timeLimitBox.setAlignment(Pos.CENTER);
+
+        Label targetPenaltyLabel = new Label("Target Penalty (-1 for none):");
+        targetPenaltyField = new TextField();
+        targetPenaltyField.setPrefWidth(80);
+        HBox targetPenaltyBox = new HBox(5, targetPenaltyLabel, targetPenaltyField);
+        targetPenaltyBox.setAlignment(Pos.CENTER);
+
+        Label stagnationLimitLabel = new Label("Moves Without Improvement (0 for none):");
+        stagnationLimitField = new TextField();
+        stagnationLimitField.setPrefWidth(100);
+        HBox stagnationLimitBox = new HBox(5, stagnationLimitLabel, stagnationLimitField);
+        stagnationLimitBox.setAlignment(Pos.CENTER);
+
         HBox secondOptimizAlgorithmRow = new HBox(10, coolingRateBox, kBox);
         secondOptimizAlgorithmRow.setAlignment(Pos.CENTER);
 
-        return new VBox(10, optimizAlgorithmLabel, firstOptimizAlgorithmRow, secondOptimizAlgorithmRow);
+        HBox thirdOptimizAlgorithmRow = new HBox(10, timeLimitBox, targetPenaltyBox);
+        thirdOptimizAlgorithmRow.setAlignment(Pos.CENTER);
+
+        Label replicasLabel = new Label("Parallel Tempering Replicas (1 for none):");
+        replicasField = new TextField();
+        replicasField.setPrefWidth(50);
+        HBox replicasBox = new HBox(5, replicasLabel, replicasField);
+        replicasBox.setAlignment(Pos.CENTER);
+
+        Label generatorsLabel = new Label("Initial Solution Generators:");
+        generatorsField = new TextField();
+        generatorsField.setPrefWidth(50);
+        HBox generatorsBox = new HBox(5, generatorsLabel, generatorsField);
+        generatorsBox.setAlignment(Pos.CENTER);
+
+        HBox fourthOptimizAlgorithmRow = new HBox(10, stagnationLimitBox);
+        fourthOptimizAlgorithmRow.setAlignment(Pos.CENTER);
+
+        HBox fifthOptimizAlgorithmRow = new HBox(10, replicasBox, generatorsBox);
+        fifthOptimizAlgorithmRow.setAlignment(Pos.CENTER);
+
+        return new VBox(10, optimizAlgorithmLabel, firstOptimizAlgorithmRow, secondOptimizAlgorithmRow, thirdOptimizAlgorithmRow, fourthOptimizAlgorithmRow, fifthOptimizAlgorithmRow);
     }
 
     private Node createDatabaseSection() {
@@ -176,6 +240,11 @@ public class ConfigWindow {
         minTempField.setText(String.valueOf(generalConfiguration.getMinTemperature()));
         coolingRateField.setText(String.valueOf(generalConfiguration.getCoolingRate()));
         kField.setText(String.valueOf(generalConfiguration.getK()));
+        timeLimitField.setText(String.valueOf(generalConfiguration.getTimeLimitSeconds()));
+        targetPenaltyField.setText(String.valueOf(generalConfiguration.getTargetPenalty()));
+        stagnationLimitField.setText(String.valueOf(generalConfiguration.getStagnationLimit()));
+        replicasField.setText(String.valueOf(generalConfiguration.getOptimizationReplicas()));
+        generatorsField.setText(String.valueOf(generalConfiguration.getInitialSolutionGenerators()));
 
         // Database Section
         syncTimeField.setText(String.valueOf(generalConfiguration.getDatabaseSynchronizationTimeMinutes()));
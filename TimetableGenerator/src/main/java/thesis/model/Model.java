@@ -12,6 +12,7 @@ import thesis.model.parser.InputFileReader;
 import thesis.model.parser.XmlResult;
 import thesis.model.persistence.DBHibernateManager;
 import thesis.model.persistence.DBManager;
+import thesis.model.solver.solutionoptimizer.TerminationCriteria;
 
 import java.io.File;
 import java.io.IOException;
@@ -246,8 +247,8 @@ public class Model implements ModelInterface {
     }
 
     @Override
-    public void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k) {
-        taskManager.startGeneratingSolution(programName, progressUUID, initialTemperature, minTemperature, coolingRate, k);
+    public void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas, int numInitialGenerators) {
+        taskManager.startGeneratingSolution(programName, progressUUID, initialTemperature, minTemperature, coolingRate, k, terminationCriteria, numReplicas, numInitialGenerators);
     }
 
     @Override
@@ -275,8 +276,8 @@ public class Model implements ModelInterface {
     }
 
     @Override
-    public void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k) {
-        taskManager.startReoptimizingSolution(timetable, progressUUID, initialTemperature, minTemperature, coolingRate, k);
+    public void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas) {
+        taskManager.startReoptimizingSolution(timetable, progressUUID, initialTemperature, minTemperature, coolingRate, k, terminationCriteria, numReplicas);
     }
 
     @Override
@@ -6,6 +6,7 @@ import thesis.model.domain.InMemoryRepository;
 import thesis.model.domain.components.*;
 import thesis.model.exceptions.*;
 import thesis.model.parser.XmlResult;
+import thesis.model.solver.solutionoptimizer.TerminationCriteria;
 
 import java.io.File;
 import java.io.IOException;
@@ -37,8 +38,8 @@ public interface ModelInterface {
     Collection<Teacher> getTeachers(String progName) throws CheckedIllegalStateException;
 
     // Schedule solution generation methods
-    void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k);
-    void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k);
+    void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas, int numInitialGenerators);
+    void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas);
     double getGenerationProgress(UUID progressUUID) throws ExecutionException, InterruptedException, InvalidConfigurationException;
     void cancelTimetableGeneration(UUID progressUUID);
 
@@ -13,12 +13,13 @@ import thesis.model.solver.core.DefaultISGValue;
 import thesis.model.solver.core.DefaultISGVariable;
 import thesis.model.solver.initialsolutiongenerator.InitialSolutionGenerator;
 import thesis.model.solver.initialsolutiongenerator.MullerBasedSolutionGenerator;
+import thesis.model.solver.initialsolutiongenerator.PortfolioSolutionGenerator;
 import thesis.model.solver.solutionoptimizer.HeuristicAlgorithm;
+import thesis.model.solver.solutionoptimizer.ParallelTempering;
 import thesis.model.solver.solutionoptimizer.SimulatedAnnealing;
+import thesis.model.solver.solutionoptimizer.TerminationCriteria;
 import thesis.utils.DaemonThreadFactory;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.ThreadMXBean;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
@@ -32,13 +33,13 @@ public class TaskManager {
     private static final Logger logger = LoggerFactory.getLogger(TaskManager.class);
 
     private final ModelInterface model;
-    private final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
     private final Map<UUID, Future<Timetable>> generatedTimetables = new ConcurrentHashMap<>(); // ProgramUUID : Timetable generated
     private final Map<UUID, CountDownLatch> synchronizationMap = new ConcurrentHashMap<>();     // ProgramUUID : CountDownLatch (to synchronize the threads and perform cleanup safely)
     private final Map<UUID, TaskInformation> taskInformationMap = new ConcurrentHashMap<>();
 
+    private static final int NUM_THREADS = Runtime.getRuntime().availableProcessors();
     private final ExecutorService threadPool = Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors(),
+            NUM_THREADS,
             new DaemonThreadFactory()
     );
 
@@ -49,7 +50,6 @@ public class TaskManager {
 
     public TaskManager(ModelInterface model) {
         this.model = model;
-        bean.setThreadCpuTimeEnabled(true);
     }
 
     public void startSynchronizationTask(int timeInMinutes) {
@@ -102,7 +102,7 @@ public class TaskManager {
         logger.info("Synchronization Cancelled!");
     }
 
-    public void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k) {
+    public void startGeneratingSolution(String programName, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas, int numInitialGenerators) {
         InMemoryRepository data = model.getDataRepository(programName);
 
         // Should never happen
@@ -114,11 +114,11 @@ public class TaskManager {
         }
 
         // Pool the generation task
-        taskInformationMap.put(progressUUID, new TaskInformation(data, bean));
-        generatedTimetables.put(progressUUID, threadPool.submit(() -> generateTimetable(progressUUID, initialTemperature, minTemperature, coolingRate, k)));
+        taskInformationMap.put(progressUUID, new TaskInformation(data, numInitialGenerators, threadPool));
+        generatedTimetables.put(progressUUID, threadPool.submit(() -> generateTimetable(progressUUID, initialTemperature, minTemperature, coolingRate, k, terminationCriteria, numReplicas)));
     }
 
-    public void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k) {
+    public void startReoptimizingSolution(Timetable timetable, UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas) {
         InMemoryRepository data = model.getDataRepository(timetable.getProgramName());
 
         // Should never happen
@@ -127,8 +127,8 @@ public class TaskManager {
         }
 
         // Pool the reoptimization task
-        taskInformationMap.put(progressUUID, new TaskInformation(timetable, data, bean));
-        generatedTimetables.put(progressUUID, threadPool.submit(() -> generateTimetable(progressUUID, initialTemperature, minTemperature, coolingRate, k)));
+        taskInformationMap.put(progressUUID, new TaskInformation(timetable, data, threadPool));
+        generatedTimetables.put(progressUUID, threadPool.submit(() -> generateTimetable(progressUUID, initialTemperature, minTemperature, coolingRate, k, terminationCriteria, numReplicas)));
     }
 
     public double getGenerationProgress(UUID progressUUID) throws ExecutionException, InterruptedException {
@@ -163,7 +163,7 @@ public class TaskManager {
         }
     }
 
-    private Timetable generateTimetable(UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k) throws InvalidConfigurationException {
+    private Timetable generateTimetable(UUID progressUUID, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas) throws InvalidConfigurationException {
         TaskInformation taskInformation = taskInformationMap.get(progressUUID);
         CountDownLatch countDownLatch = new CountDownLatch(1);
         synchronizationMap.put(progressUUID, countDownLatch);
@@ -175,7 +175,7 @@ public class TaskManager {
 
         Timetable solution;
         try {
-            solution = taskInformation.startGeneration(initialTemperature, minTemperature, coolingRate, k);
+            solution = taskInformation.startGeneration(initialTemperature, minTemperature, coolingRate, k, terminationCriteria, numReplicas);
         } catch (Exception e) {
             numGen = numGenerationTasks.decrementAndGet();
             logger.error(e.getMessage());
@@ -223,19 +223,19 @@ public class TaskManager {
     }
 
     private static class TaskInformation {
-        private final ThreadMXBean bean;
+        private final ExecutorService threadPool;
         private final InMemoryRepository data;
         private final InitialSolutionGenerator<DefaultISGSolution> initialSolutionGenerator;
         private HeuristicAlgorithm<Timetable> heuristicAlgorithm;
         private final DefaultISGSolution solutionToReoptimize;
 
-        public TaskInformation(Timetable timetable, InMemoryRepository data, ThreadMXBean bean) {
+        public TaskInformation(Timetable timetable, InMemoryRepository data, ExecutorService threadPool) {
             this.data = data;
-            this.bean = bean;
+            this.threadPool = threadPool;
             initialSolutionGenerator = null;
 
             solutionToReoptimize = new DefaultISGSolution(data);
-            for(ScheduledLesson lesson : timetable.getScheduledLessonList()) {
+            for(ScheduledLesson lesson : timetable.getScheduledLessons()) {
                 ClassUnit cls = data.getClassUnit(lesson.getClassId());
                 DefaultISGVariable variable = new DefaultISGVariable(cls);
                 DefaultISGValue value = new DefaultISGValue(variable, lesson);
@@ -246,11 +246,16 @@ public class TaskManager {
             }
         }
 
-        public TaskInformation(InMemoryRepository data, ThreadMXBean bean) {
+        public TaskInformation(InMemoryRepository data, int numInitialGenerators, ExecutorService threadPool) {
             this.data = data;
-            this.bean = bean;
+            this.threadPool = threadPool;
             this.solutionToReoptimize = null;
-            initialSolutionGenerator = new MullerBasedSolutionGenerator(data);
+            if(numInitialGenerators > 1) {
+                // The generators are run by the thread pool, the first valid solution is used
+                initialSolutionGenerator = new PortfolioSolutionGenerator(data, numInitialGenerators, threadPool);
+            } else {
+                initialSolutionGenerator = new MullerBasedSolutionGenerator(data);
+            }
         }
 
         public double getGenerationProgress() {
@@ -285,9 +290,9 @@ public class TaskManager {
             return (currentTime - startTime)/1_000_000_000;
         }
 
-        public Timetable startGeneration(double initialTemperature, double minTemperature, double coolingRate, int k) throws InterruptedException, InvalidConfigurationException {
+        public Timetable startGeneration(double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria, int numReplicas) throws InterruptedException, InvalidConfigurationException {
             long id = Thread.currentThread().getId();
-            long startCpu = bean.getThreadCpuTime(id); // Start time in nanoseconds
+            long startWallClock = System.nanoTime(); // Start time in nanoseconds
 
             DefaultISGSolution solution;
             if(solutionToReoptimize == null) {
@@ -298,13 +303,24 @@ public class TaskManager {
                     return null;
                 }
 
-                logger.info("Thread {} finished generating the initial solution and it took {} seconds", id, getTimeElapsed(bean.getThreadCpuTime(id), startCpu));
+                logger.info("Thread {} finished generating the initial solution and it took {} seconds", id, getTimeElapsed(System.nanoTime(), startWallClock));
             } else {
                 solution = solutionToReoptimize;
             }
 
-            long startOpt = bean.getThreadCpuTime(id); // Start time in nanoseconds
-            heuristicAlgorithm = new SimulatedAnnealing(solution, initialTemperature, minTemperature, coolingRate, k);
+            if(terminationCriteria.hasTimeLimit()) {
+                // The time limit is of the whole generation, the optimization uses the time left by the initial solution
+                long elapsedMillis = (System.nanoTime() - startWallClock) / 1_000_000;
+                terminationCriteria = terminationCriteria.withTimeLimit(terminationCriteria.getTimeLimitMillis() - elapsedMillis);
+            }
+
+            long startOpt = System.nanoTime();
+            if(numReplicas > 1) {
+                // The replicas are run by the thread pool
+                heuristicAlgorithm = new ParallelTempering(solution, initialTemperature, minTemperature, coolingRate, k, numReplicas, threadPool, terminationCriteria);
+            } else {
+                heuristicAlgorithm = new SimulatedAnnealing(solution, initialTemperature, minTemperature, coolingRate, k, terminationCriteria);
+            }
             Timetable finalSolution = heuristicAlgorithm.execute();
 
             // Optimization was canceled
@@ -312,9 +328,11 @@ public class TaskManager {
                 return null;
             }
 
-            logger.info("Thread {} finished optimizing the solution and it took {} seconds", id, getTimeElapsed(bean.getThreadCpuTime(id), startOpt));
+            logger.info("Thread {} finished optimizing the solution and it took {} seconds", id, getTimeElapsed(System.nanoTime(), startOpt));
 
-            finalSolution.setRuntime(getTimeElapsed(bean.getThreadCpuTime(id), startCpu)); // Runtime in seconds
+            // The work of the replicas is done by other threads, so the CPU time of this thread doesn't measure the
+            // whole generation
+            finalSolution.setRuntime(getTimeElapsed(System.nanoTime(), startWallClock)); // Runtime in seconds
             data.addTimetable(finalSolution);
 
             return finalSolution;
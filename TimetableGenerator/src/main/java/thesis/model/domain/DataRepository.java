@@ -16,6 +16,7 @@ public class DataRepository implements InMemoryRepository {
     private final Map<Integer, Teacher> teacherMap = new HashMap<>();
     private final Map<UUID, Timetable> timetableMap = new HashMap<>();
     private LocalDateTime lastUpdatedAt;
+    private volatile long version = 0; // Incremented every time the problem changes
 
     public DataRepository() {}
 
@@ -35,6 +36,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void setOptimizationParameters(short timeWeight, short roomWeight, short distribWeight) {
+        version++;
         timetableConfiguration.setTimeWeight(timeWeight);
         timetableConfiguration.setRoomWeight(roomWeight);
         timetableConfiguration.setDistribWeight(distribWeight);
@@ -42,6 +44,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void setConfiguration(short numDays, int numWeeks, short slotPerDay) {
+        version++;
         byte numDaysByte = (byte) numDays;
         timetableConfiguration.setNumDays(numDaysByte);
         timetableConfiguration.setNumWeeks(numWeeks);
@@ -50,9 +53,20 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void addConstraint(Constraint constraint) {
+        version++;
         constraintSet.add(constraint);
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void markChanged() {
+        version++;
+    }
+
     @Override
     public TimetableConfiguration getTimetableConfiguration() {
         return timetableConfiguration;
@@ -60,6 +74,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void addRoom(Room room) {
+        version++;
         roomMap.put(room.getRoomId(), room);
     }
 
@@ -75,6 +90,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void addTeacher(Teacher teacher) {
+        version++;
         teacherMap.put(teacher.getId(), teacher);
     }
 
@@ -90,6 +106,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void addCourse(Course course) {
+        version++;
         courseMap.put(course.getCourseId(), course);
     }
 
@@ -123,6 +140,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void addClassUnit(ClassUnit classUnit) {
+        version++;
         classUnitMap.put(classUnit.getClassId(), classUnit);
     }
 
@@ -148,7 +166,7 @@ public class DataRepository implements InMemoryRepository {
             throw e;
         }
 
-        for(ScheduledLesson lesson : timetable.getScheduledLessonList()) {
+        for(ScheduledLesson lesson : timetable.getScheduledLessons()) {
             ClassUnit cls = lesson.getClassUnit();
 
             // Corrects the time if this solution was read from a file
@@ -210,6 +228,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void cleanUnusedData() {
+        version++;
         Map<Constraint, Boolean> constraintsToRemove = new HashMap<>();
         Map<String, Boolean> roomsToRemove = new HashMap<>();
         Map<Integer, Boolean> teachersToRemove = new HashMap<>();
@@ -266,6 +285,7 @@ public class DataRepository implements InMemoryRepository {
 
     @Override
     public void setRoomBidirectionalDistances() {
+        version++;
         // Add bidirectionality to room distances
         for(Room room1 : roomMap.values()) {
             String roomId = room1.getRoomId();
@@ -326,7 +346,7 @@ public class DataRepository implements InMemoryRepository {
         }
 
         for(Timetable timetable : timetableMap.values()) {
-            for(ScheduledLesson lesson : timetable.getScheduledLessonList()) {
+            for(ScheduledLesson lesson : timetable.getScheduledLessons()) {
                 ClassUnit cls = getClassUnit(lesson.getClassId());
 
                 if(cls == null) {
@@ -16,6 +16,12 @@ public interface InMemoryRepository extends XmlResult {
     void setLastUpdatedAt(LocalDateTime updateTime);
     LocalDateTime getLastUpdatedAt();
 
+    // Changes every time the problem is changed. Used to know when the data derived from the problem is outdated
+    long getVersion();
+
+    // Must be called after changing rooms or teachers of the problem directly, as the repository doesn't see those changes
+    void markChanged();
+
     // Configuration of the problem
     void setOptimizationParameters(short timeWeight, short roomWeight, short distribWeight);
     void setConfiguration(short numDays, int numWeeks, short slotPerDay);
@@ -6,21 +6,29 @@ import java.util.*;
 
 public class ClassUnit {
     private final String classId;
+    private final int intId;
     private String parentClassId;
 
     private final Map<Time, Integer> classTimesList = new HashMap<>(); // List of pairs of time and associated penalty
     private final List<Integer> classTeacherList = new ArrayList<>();
     private final Map<String, Integer> classRoomPenalties = new HashMap<>(); // RoomId : penalty
     private final List<Constraint> constraintList = new ArrayList<>();
+    private final List<Integer> classTeacherListView = Collections.unmodifiableList(classTeacherList);
+    private final List<Constraint> constraintListView = Collections.unmodifiableList(constraintList);
 
-    public ClassUnit(String classId) {
+    public ClassUnit(String classId, int intId) {
         this.classId = classId;
+        this.intId = intId;
     }
 
     public String getClassId() {
         return classId;
     }
 
+    public int getIntId() {
+        return intId;
+    }
+
     public String getParentClassId() {
         return parentClassId;
     }
@@ -70,7 +78,7 @@ public class ClassUnit {
     }
 
     public List<Integer> getTeacherIdList() {
-        return Collections.unmodifiableList(classTeacherList);
+        return classTeacherListView;
     }
 
     public void addConstraint(Constraint r) {
@@ -78,7 +86,7 @@ public class ClassUnit {
     }
 
     public List<Constraint> getConstraintList() {
-        return Collections.unmodifiableList(constraintList);
+        return constraintListView;
     }
 
     @Override
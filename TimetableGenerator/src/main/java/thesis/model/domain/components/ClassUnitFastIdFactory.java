@@ -0,0 +1,47 @@
+package thesis.model.domain.components;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Has the objective of assigning an int value to a class unit when it is created. The int value is used by the solver
+ * to index classes in arrays and primitive collections. The string ids are only used when importing and exporting data.
+ */
+public class ClassUnitFastIdFactory {
+    private static final Logger logger = LoggerFactory.getLogger(ClassUnitFastIdFactory.class);
+    private static final Map<String, Integer> stringToId = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private static int getOrCreateId(String key) {
+        // The size of the map isn't atomic with the insertion of a different key, so two keys could get the same id
+        return stringToId.computeIfAbsent(key, k -> nextId.getAndIncrement());
+    }
+
+    public static ClassUnit createClassUnit(String classId) {
+        return new ClassUnit(classId, getOrCreateId(classId));
+    }
+
+    /**
+     * Checks if a class unit with the id given was created, which must be verified before using the id of classes read
+     * from solutions as {@link #getId} throws an unchecked exception
+     */
+    public static boolean hasId(String classId) {
+        return classId != null && stringToId.containsKey(classId);
+    }
+
+    public static int getId(String classId) {
+        Integer id = stringToId.get(classId);
+
+        if (id == null) {
+            String message = "Class Unit Id not found: " + classId;
+            logger.error(message);
+            throw new IllegalArgumentException(message);
+        }
+
+        return id;
+    }
+}
@@ -1,5 +1,12 @@
 package thesis.model.domain.components;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntLists;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntSets;
+
 import java.util.*;
 
 public abstract class Constraint {
@@ -8,11 +15,16 @@ public abstract class Constraint {
     private final String type;
     private final Integer penalty;
     private final boolean required;
-    private final Set<String> classUnitIdList = new HashSet<>();
+    private final Set<String> classUnitIdList = new HashSet<>(); // Only used for export
+    private final IntSet classUnitIntIds = new IntOpenHashSet();
+    private final IntList classUnitIntIdList = new IntArrayList(); // Same ids in the order they were added
+    private final IntSet classUnitIntIdsView = IntSets.unmodifiable(classUnitIntIds);
+    private final IntList classUnitIntIdListView = IntLists.unmodifiable(classUnitIntIdList);
     private final Integer firstParam;
     private final Integer secondParam;
     private final int nrWeeks;
     private final short nrDays;
+    private final short slotsPerDay;
     private final PenaltyTypes.ConstraintCategory constraintCategory;
 
     public Constraint(int id, String type, Integer penalty, boolean required, Integer firstParam, Integer secondParam, TimetableConfiguration timetableConfiguration, PenaltyTypes.ConstraintCategory constraintCategory) {
@@ -24,6 +36,7 @@ public abstract class Constraint {
         this.secondParam = secondParam;
         this.nrWeeks = timetableConfiguration.getNumWeeks();
         this.nrDays = timetableConfiguration.getNumDays();
+        this.slotsPerDay = timetableConfiguration.getSlotsPerDay();
         this.constraintCategory = constraintCategory;
     }
 
@@ -63,34 +76,54 @@ public abstract class Constraint {
         return nrDays;
     }
 
+    protected short getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
     public Integer getSecondParameter() {
         return secondParam;
     }
 
+    // Should only be executed after creating the class units because the ClassUnitFastIdFactory
+    // must already have the int id of the class
     public void addClassUnitId(String classUnitId) {
         classUnitIdList.add(classUnitId);
+
+        int classUnitIntId = ClassUnitFastIdFactory.getId(classUnitId);
+        if(classUnitIntIds.add(classUnitIntId)) {
+            classUnitIntIdList.add(classUnitIntId);
+        }
     }
 
     public Set<String> getClassUnitIdList() {
         return Collections.unmodifiableSet(classUnitIdList);
     }
 
+    public IntSet getClassUnitIntIds() {
+        return classUnitIntIdsView;
+    }
+
+    public IntList getClassUnitIntIdList() {
+        return classUnitIntIdListView;
+    }
+
     public PenaltyTypes.ConstraintCategory getConstraintCategory() {
         return constraintCategory;
     }
 
     /**
-     * Obtain the classes that are already scheduled and are present in this restriction
+     * Obtain the classes that are already scheduled and are present in this restriction.
+     * The lessons are looked up directly by the ids of the classes of the restriction, in the order the classes were added
      * @param solution
-     * @return A list of the class ids that are scheduled and present in this restriction
+     * @return A list of the class ids that are scheduled and present in this restriction. The list is reused by the
+     * evaluation context of the timetable, so it is only valid while this constraint is computed
      */
     protected List<ScheduledLesson> getScheduledClasses(Timetable solution) {
-        List<ScheduledLesson> scheduledClasses = new ArrayList<>();
-        Set<String> classUnitList = this.getClassUnitIdList();
+        List<ScheduledLesson> scheduledClasses = solution.getEvaluationContext().scheduledLessons();
 
-        for(ScheduledLesson scheduledLesson : solution.getScheduledLessonList()) {
-            String classId = scheduledLesson.getClassId();
-            if(classUnitList.contains(classId)) {
+        for(int i = 0; i < classUnitIntIdList.size(); i++) {
+            ScheduledLesson scheduledLesson = solution.getScheduledLesson(classUnitIntIdList.getInt(i));
+            if(scheduledLesson != null) {
                 scheduledClasses.add(scheduledLesson);
             }
         }
@@ -98,8 +131,27 @@ public abstract class Constraint {
         return scheduledClasses;
     }
 
+    /**
+     * Computes the penalty of the constraint with the lessons of the timetable
+     * @param solution Timetable to be evaluated
+     * @return The results of the constraint. They are reused by the evaluation context of the timetable (see
+     * {@link EvaluationContext}), so they must be read before another constraint is computed on it
+     */
     public abstract ConstraintResults computePenalties(Timetable solution);
 
+    /**
+     * Computes the penalty of the constraint after the lesson of one of its classes was changed. By default the
+     * constraint is computed again, constraints that can obtain the difference from the changed lesson override it.
+     * @param solution Timetable that already has the new lesson
+     * @param previousPenalty Penalty of the constraint before the change
+     * @param previousLesson Lesson of the class before the change (null if the class wasn't scheduled)
+     * @param newLesson Lesson of the class after the change (null if the class was removed)
+     * @return The penalty of the constraint with the new lesson
+     */
+    public int computePenaltyAfterChange(Timetable solution, int previousPenalty, ScheduledLesson previousLesson, ScheduledLesson newLesson) {
+        return computePenalties(solution).penalty;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Constraint)) return false;
@@ -1,9 +1,12 @@
 package thesis.model.domain.components;
 
-import java.util.HashSet;
-import java.util.Set;
+import it.unimi.dsi.fastutil.ints.IntSet;
 
+/**
+ * Penalty and classes in conflict of a constraint. The results given by {@link Constraint#computePenalties} are reused
+ * (see {@link EvaluationContext}), so they must be read before the next constraint is computed on the same timetable.
+ */
 public class ConstraintResults {
     public int penalty = 0;
-    public Set<String> conflictingClasses = new HashSet<>();
+    public IntSet conflictingClasses; // Dense ids of the classes (ClassUnitFastIdFactory)
 }
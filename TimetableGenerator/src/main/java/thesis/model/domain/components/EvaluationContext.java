@@ -0,0 +1,102 @@
+package thesis.model.domain.components;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import thesis.model.domain.components.constraints.utils.DaySlotBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scratch space reused by the constraints while they are computed on a {@link Timetable}. The buffers only grow, so once
+ * they reach the size needed by the largest constraint the evaluation of the constraints doesn't allocate memory.
+ * Every timetable has its own context (each solver thread works on its own timetable), so a timetable must only be
+ * evaluated by one thread at a time. The objects given by the context are only valid until the next constraint is
+ * computed on the same timetable.
+ */
+public class EvaluationContext {
+    private final ConstraintResults results = new ConstraintResults();
+    private final IntSet conflicts = new IntOpenHashSet();
+    private final List<ScheduledLesson> scheduledLessons = new ArrayList<>();
+    private long[] sortKeys = new long[0];
+    private int[] positions = new int[0];
+    private int[] dayLoads = new int[0];
+
+    private DaySlotBitmap daySlots;
+    private short daySlotsNrDays;
+    private int daySlotsNrWeeks;
+    private int daySlotsSlotsPerDay;
+
+    /**
+     * Results of the constraint being computed, with no penalty and no conflicting classes
+     */
+    public ConstraintResults results() {
+        results.penalty = 0;
+        results.conflictingClasses = null;
+        return results;
+    }
+
+    /**
+     * Empty set for the dense ids of the classes in conflict
+     */
+    public IntSet conflicts() {
+        conflicts.clear();
+        return conflicts;
+    }
+
+    /**
+     * Empty list for the scheduled lessons of the constraint being computed
+     */
+    public List<ScheduledLesson> scheduledLessons() {
+        scheduledLessons.clear();
+        return scheduledLessons;
+    }
+
+    /**
+     * Array with at least the size given. The contents are undefined
+     */
+    public long[] sortKeys(int size) {
+        if(sortKeys.length < size) {
+            sortKeys = new long[Math.max(size, sortKeys.length * 2)];
+        }
+        return sortKeys;
+    }
+
+    /**
+     * Array with at least the size given. The contents are undefined
+     */
+    public int[] positions(int size) {
+        if(positions.length < size) {
+            positions = new int[Math.max(size, positions.length * 2)];
+        }
+        return positions;
+    }
+
+    /**
+     * Array with at least the size given, of which the first size positions are 0
+     */
+    public int[] dayLoads(int size) {
+        if(dayLoads.length < size) {
+            dayLoads = new int[size];
+        } else {
+            Arrays.fill(dayLoads, 0, size, 0);
+        }
+        return dayLoads;
+    }
+
+    /**
+     * Bitmap without lessons for the configuration given. It is only created again if the configuration changes
+     */
+    public DaySlotBitmap daySlots(short nrDays, int nrWeeks, int slotsPerDay) {
+        if(daySlots == null || daySlotsNrDays != nrDays || daySlotsNrWeeks != nrWeeks || daySlotsSlotsPerDay != slotsPerDay) {
+            daySlots = new DaySlotBitmap(nrDays, nrWeeks, slotsPerDay);
+            daySlotsNrDays = nrDays;
+            daySlotsNrWeeks = nrWeeks;
+            daySlotsSlotsPerDay = slotsPerDay;
+        } else {
+            daySlots.clear();
+        }
+        return daySlots;
+    }
+}
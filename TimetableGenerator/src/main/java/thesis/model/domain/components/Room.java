@@ -13,6 +13,7 @@ public class Room {
     private final List<Time> roomUnavailabilities = new ArrayList<>();
     private final Map<String, Integer> roomDistances = new HashMap<>(); // roomId : distance (Only used for export)
     private final Int2IntMap fastRoomDistances = new Int2IntOpenHashMap();
+    private int maxRoomDistance; // Highest distance of fastRoomDistances
 
     public Room(String roomId, int intId) {
         this.roomId = roomId;
@@ -50,6 +51,7 @@ public class Room {
     public void clearRoomDistances() {
         roomDistances.clear();
         fastRoomDistances.clear();
+        maxRoomDistance = 0;
     }
 
     public void optimizeRoomDistances() {
@@ -57,6 +59,7 @@ public class Room {
         // may not have the requested room
         for(Map.Entry<String, Integer> roomDistance : roomDistances.entrySet()) {
             fastRoomDistances.put(RoomFastIdFactory.getId(roomDistance.getKey()), roomDistance.getValue().intValue());
+            maxRoomDistance = Math.max(maxRoomDistance, roomDistance.getValue());
         }
     }
 
@@ -75,4 +78,12 @@ public class Room {
     public int getRoomDistance(int room2Id) {
         return fastRoomDistances.getOrDefault(room2Id, 0);
     }
+
+    /**
+     * Obtains the highest distance from this room to any other room
+     * @return The highest value that {@link #getRoomDistance(int)} can return
+     */
+    public int getMaxRoomDistance() {
+        return maxRoomDistance;
+    }
 }
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Has the objective of assigning an int value to a room when it is created. The int value is only used to obtain the distances between rooms.
@@ -13,9 +14,11 @@ import java.util.concurrent.ConcurrentHashMap;
 public class RoomFastIdFactory {
     private static final Logger logger = LoggerFactory.getLogger(RoomFastIdFactory.class);
     private static final Map<String, Integer> stringToId = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
 
     private static int getOrCreateId(String key) {
-        return stringToId.computeIfAbsent(key, k -> stringToId.size());
+        // The size of the map isn't atomic with the insertion of a different key, so two keys could get the same id
+        return stringToId.computeIfAbsent(key, k -> nextId.getAndIncrement());
     }
 
     public static Room createRoom(String roomId) {
@@ -8,8 +8,10 @@ import java.util.*;
 
 public class ScheduledLesson {
     private final Set<Integer> teacherIds = new HashSet<>();
+    private final Set<Integer> teacherIdsView = Collections.unmodifiableSet(teacherIds);
     private final String roomId;
     private final String classId;
+    private int classIntId = -1;
     private Time scheduledTime;
     private short nDays;
     private int nWeeks;
@@ -20,6 +22,7 @@ public class ScheduledLesson {
 
     // Cache the lookups
     private List<Teacher> teacherList;
+    private int[] teacherIdArray;
     private Room room;
     private PenaltySum penalty;
     private boolean calculatePenalty = true;
@@ -39,6 +42,9 @@ public class ScheduledLesson {
     }
 
     public void bindModel(InMemoryRepository model) {
+        // Lessons may be shared between solutions (see ValueDomainCache) so binding the same model again must not change them
+        if(this.model == model) return;
+
         this.model = model;
 
         TimetableConfiguration timetableConfiguration = model.getTimetableConfiguration();
@@ -180,16 +186,36 @@ public class ScheduledLesson {
         return classId;
     }
 
+    public int getClassIntId() {
+        if(classIntId == -1) {
+            classIntId = ClassUnitFastIdFactory.getId(classId);
+        }
+
+        return classIntId;
+    }
+
     public ClassUnit getClassUnit() {
         return model.getClassUnit(classId);
     }
 
     public void addTeacherId(int teacherId) {
         teacherIds.add(teacherId);
+        teacherIdArray = null;
     }
 
     public Set<Integer> getTeacherIds() {
-        return Collections.unmodifiableSet(teacherIds);
+        return teacherIdsView;
+    }
+
+    /**
+     * Ids of the teachers of the lesson as an array, which can be iterated without creating an iterator nor boxing
+     * @return Array that must not be changed
+     */
+    public int[] getTeacherIdArray() {
+        if(teacherIdArray == null) {
+            teacherIdArray = teacherIds.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return teacherIdArray;
     }
 
     // Only used when reading from a file
@@ -235,12 +261,14 @@ public class ScheduledLesson {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (!(o instanceof ScheduledLesson)) return false;
         ScheduledLesson that = (ScheduledLesson) o;
-        return Objects.equals(teacherIds, that.teacherIds) &&
-                Objects.equals(scheduledTime, that.scheduledTime) &&
+        // The sets of teachers are compared last as comparing them iterates over them
+        return Objects.equals(classId, that.classId) &&
                 Objects.equals(roomId, that.roomId) &&
-                Objects.equals(classId, that.classId);
+                Objects.equals(scheduledTime, that.scheduledTime) &&
+                Objects.equals(teacherIds, that.teacherIds);
     }
 
     @Override
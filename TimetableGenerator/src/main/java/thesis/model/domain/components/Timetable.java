@@ -1,5 +1,9 @@
 package thesis.model.domain.components;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import thesis.model.domain.InMemoryRepository;
 import thesis.model.parser.XmlResult;
 
@@ -15,11 +19,11 @@ public class Timetable implements XmlResult {
     private LocalDateTime dateOfCreation;
     private String programName;
     private long runtime;                                                            // Sum of the durations of the initial solution and optimization algorithms
-    private final Map<String, ScheduledLesson> scheduledLessonMap = new HashMap<>(); // ClassId : ScheduledLesson
+    private final Int2ObjectMap<ScheduledLesson> scheduledLessonMap = new Int2ObjectOpenHashMap<>(); // Class int id : ScheduledLesson
     private InMemoryRepository dataModel;
 
     // Reserved for temporary classes (which are used to check conflicts)
-    private boolean hasTemporaryLesson = false;
+    private ScheduledLesson temporaryLesson;
     private ScheduledLesson originalLesson;
 
     // Cache of constraints
@@ -31,6 +35,20 @@ public class Timetable implements XmlResult {
     private boolean updateCost = true;
     private PenaltySum cost;
 
+    // Running totals of the penalties, kept up to date as lessons are added, replaced or removed
+    private boolean costInitialized = false;
+    private int lessonRoomPenalty;
+    private int lessonTimePenalty;
+    private final Object2IntMap<Constraint> constraintPenalties = new Object2IntOpenHashMap<>(); // Constraint : last penalty computed
+    private final Set<Constraint> dirtyConstraints = new HashSet<>(); // Constraints of which a lesson changed since they were computed
+    private final Int2ObjectMap<ScheduledLesson> changedLessons = new Int2ObjectOpenHashMap<>(); // Class int id : lesson before the changes (null if it wasn't scheduled)
+    private int violatedRequiredConstraints;                           // Number of required constraints with penalty in the cache
+    private int roomConstraintPenalty;
+    private int timeConstraintPenalty;
+    private int commonConstraintPenalty;
+
+    private final EvaluationContext evaluationContext = new EvaluationContext(); // Scratch space of the constraints
+
     public Timetable(UUID id, String programName, LocalDateTime dateOfCreation, long runtime) {
         this.timetableId = Objects.requireNonNullElseGet(id, UUID::randomUUID);
         this.programName = programName;
@@ -64,9 +82,7 @@ public class Timetable implements XmlResult {
             }
         }
 
-        isValid = null;
-        updateCost = true;
-        updateConstraints = true;
+        clearCache();
     }
 
     public UUID getTimetableId() {
@@ -77,6 +93,15 @@ public class Timetable implements XmlResult {
         return new ArrayList<>(scheduledLessonMap.values());
     }
 
+    /**
+     * Read only view of the lessons of the timetable. Unlike {@link #getScheduledLessonList()} the lessons aren't copied,
+     * so the view must not be used while the timetable is changed.
+     * @return The lessons of the timetable
+     */
+    public Collection<ScheduledLesson> getScheduledLessons() {
+        return Collections.unmodifiableCollection(scheduledLessonMap.values());
+    }
+
     public void setProgramName(String programName) {
         this.programName = programName;
     }
@@ -105,130 +130,494 @@ public class Timetable implements XmlResult {
         return dateOfCreationFormatter.format(dateOfCreation);
     }
 
+    /**
+     * Adds a lesson to the timetable. If there was already a lesson of the same class it is replaced.
+     * Only the constraints of its class are marked to be recomputed.
+     * @param scheduledLesson Lesson to be added
+     */
     public void addScheduledLesson(ScheduledLesson scheduledLesson) {
-        scheduledLessonMap.put(scheduledLesson.getClassId(), scheduledLesson);
+        if(temporaryLesson != null) {
+            throw new IllegalStateException("Timetable: The temporary lesson must be removed before changing the timetable!");
+        }
+        updateChangesOfOtherClass(scheduledLesson.getClassIntId());
+        ScheduledLesson previousLesson = scheduledLessonMap.put(scheduledLesson.getClassIntId(), scheduledLesson);
 
         if(dataModel != null) {
             scheduledLesson.bindModel(dataModel);
         }
 
+        if(costInitialized) {
+            if(previousLesson != null) {
+                updateLessonPenalty(previousLesson, -1);
+            }
+            updateLessonPenalty(scheduledLesson, 1);
+            markConstraintsDirty(scheduledLesson.getClassUnit(), previousLesson);
+        }
+
+        isValid = null;
+        if(previousLesson == null) {
+            // A new class may bring new constraints
+            updateConstraints = true;
+        }
+    }
+
+    /**
+     * Removes the lesson of a class from the timetable.
+     * Only the constraints of its class are marked to be recomputed.
+     * @param classId Int id of the class of which the lesson is to be removed
+     */
+    public void removeScheduledLesson(int classId) {
+        if(temporaryLesson != null) {
+            throw new IllegalStateException("Timetable: The temporary lesson must be removed before changing the timetable!");
+        }
+        updateChangesOfOtherClass(classId);
+        ScheduledLesson removedLesson = scheduledLessonMap.remove(classId);
+        if(removedLesson == null) {
+            return;
+        }
+
+        if(costInitialized) {
+            updateLessonPenalty(removedLesson, -1);
+            markConstraintsDirty(removedLesson.getClassUnit(), removedLesson);
+        }
+
         isValid = null;
-        updateCost = true;
         updateConstraints = true;
     }
 
+    /**
+     * Adds a lesson that is only used to check the cost and validity of the timetable with it.
+     * The cached results of the constraints aren't changed, only the constraints of the class of the lesson are
+     * computed with it.
+     * @param scheduledLesson Lesson to be added temporarily
+     */
     public void addTemporaryLesson(ScheduledLesson scheduledLesson) {
-        if(hasTemporaryLesson) {
+        if(temporaryLesson != null) {
             throw new IllegalStateException("Timetable: Only one temporary lesson should be added at a time!");
         }
-        originalLesson = scheduledLessonMap.put(scheduledLesson.getClassId(), scheduledLesson);
+
+        // The dirty constraints must be computed without the temporary lesson
+        if(costInitialized) {
+            updateDirtyConstraints();
+        }
+
+        originalLesson = scheduledLessonMap.put(scheduledLesson.getClassIntId(), scheduledLesson);
 
         if(dataModel != null) {
             scheduledLesson.bindModel(dataModel);
         }
 
-        isValid = null;
-        updateCost = true;
-        updateConstraints = true;
-        hasTemporaryLesson = true;
+        temporaryLesson = scheduledLesson;
     }
 
     public void removeTemporaryLesson(ScheduledLesson scheduledLesson) {
-        scheduledLessonMap.remove(scheduledLesson.getClassId());
+        scheduledLessonMap.remove(scheduledLesson.getClassIntId());
 
         if(originalLesson != null) {
-            addScheduledLesson(originalLesson);
+            scheduledLessonMap.put(originalLesson.getClassIntId(), originalLesson);
+            originalLesson = null;
         }
 
-        updateCost = true;
-        hasTemporaryLesson = false;
-        updateConstraints = true;
-        isValid = null;
+        temporaryLesson = null;
+    }
+
+    /**
+     * Scratch space reused by the constraints computed on this timetable
+     * @return The evaluation context of the timetable
+     */
+    public EvaluationContext getEvaluationContext() {
+        return evaluationContext;
     }
 
-    public ScheduledLesson getScheduledLesson(String classId) {
+    public ScheduledLesson getScheduledLesson(int classId) {
         return scheduledLessonMap.get(classId);
     }
 
     public Set<Constraint> getConstraintSet() {
-        if(updateConstraints) {
-            constraintSet = new HashSet<>();
-
-            for (ScheduledLesson scheduledLesson : scheduledLessonMap.values()) {
-                ClassUnit cls = scheduledLesson.getClassUnit();
-                if (cls == null) {
-                    throw new IllegalStateException("Timetable: ClassUnit of scheduled lesson is null!");
-                }
-                constraintSet.addAll(cls.getConstraintList());
-            }
+        if(temporaryLesson != null) {
+            // The temporary lesson may bring constraints that shouldn't be cached
+            return collectConstraints();
+        }
 
+        if(updateConstraints) {
+            constraintSet = collectConstraints();
             updateConstraints = false;
         }
 
         return constraintSet;
     }
 
-    public PenaltySum cost() {
-        if(updateCost) {
-            int timePenalty = 0;
-            int roomPenalty = 0;
-
-            // Add the Time and Room penalties
-            for (ScheduledLesson scheduledLesson : scheduledLessonMap.values()) {
-                PenaltySum scheduledLessonPenalties = scheduledLesson.toInt();
-                timePenalty += scheduledLessonPenalties.getTimePenalty();
-                roomPenalty += scheduledLessonPenalties.getRoomPenalty();
+    private Set<Constraint> collectConstraints() {
+        Set<Constraint> constraints = new HashSet<>();
+
+        for (ScheduledLesson scheduledLesson : scheduledLessonMap.values()) {
+            ClassUnit cls = scheduledLesson.getClassUnit();
+            if (cls == null) {
+                throw new IllegalStateException("Timetable: ClassUnit of scheduled lesson is null!");
             }
+            constraints.addAll(cls.getConstraintList());
+        }
 
-            // Add the soft constraint penalties
-            int roomConstraintCost = 0;
-            int timeConstraintCost = 0;
-            int commonConstraintCost = 0;
-            for(Constraint c : getConstraintSet()) {
-                switch(c.getConstraintCategory()) {
-                    case TIME:
-                        timeConstraintCost += c.computePenalties(this).penalty;
-                        break;
-                    case ROOM:
-                        roomConstraintCost += c.computePenalties(this).penalty;
-                        break;
-                    case COMMON:
-                        commonConstraintCost += c.computePenalties(this).penalty;
-                        break;
-                    default:
-                        throw new RuntimeException("Constraint category " + c.getConstraintCategory() + " unsupported");
-                }
+        return constraints;
+    }
+
+    public PenaltySum cost() {
+        if(!costInitialized) {
+            if(temporaryLesson != null) {
+                // The running totals can't be initialized with the temporary lesson
+                return computeCost();
             }
-            roomConstraintCost = roomConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
-            timeConstraintCost = timeConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
-            commonConstraintCost = commonConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
+            initializeCost();
+        }
+
+        if(temporaryLesson != null) {
+            return computeTemporaryCost();
+        }
+
+        updateDirtyConstraints();
+
+        if(updateCost) {
+            int distribWeight = dataModel.getTimetableConfiguration().getDistribWeight();
 
-            cost = new PenaltySum(roomPenalty + roomConstraintCost, timePenalty + timeConstraintCost, commonConstraintCost);
+            cost = new PenaltySum(lessonRoomPenalty + roomConstraintPenalty * distribWeight,
+                    lessonTimePenalty + timeConstraintPenalty * distribWeight,
+                    commonConstraintPenalty * distribWeight);
             updateCost = false;
         }
 
         return cost;
     }
 
+    /**
+     * Computes the running totals of the penalties from scratch
+     */
+    private void initializeCost() {
+        lessonRoomPenalty = 0;
+        lessonTimePenalty = 0;
+        roomConstraintPenalty = 0;
+        timeConstraintPenalty = 0;
+        commonConstraintPenalty = 0;
+        violatedRequiredConstraints = 0;
+        constraintPenalties.clear();
+        dirtyConstraints.clear();
+        changedLessons.clear();
+
+        // Add the Time and Room penalties
+        for (ScheduledLesson scheduledLesson : scheduledLessonMap.values()) {
+            updateLessonPenalty(scheduledLesson, 1);
+        }
+
+        // Add the constraint penalties
+        for(Constraint c : getConstraintSet()) {
+            int penalty = c.computePenalties(this).penalty;
+            constraintPenalties.put(c, penalty);
+            updateConstraintCategoryPenalty(c, penalty);
+            updateViolatedRequiredConstraints(c, 0, penalty);
+        }
+
+        costInitialized = true;
+        updateCost = true;
+    }
+
+    /**
+     * Computes the cost of the timetable without using or changing the running totals
+     * @return The penalties of the timetable
+     */
+    private PenaltySum computeCost() {
+        int timePenalty = 0;
+        int roomPenalty = 0;
+
+        // Add the Time and Room penalties
+        for (ScheduledLesson scheduledLesson : scheduledLessonMap.values()) {
+            PenaltySum scheduledLessonPenalties = scheduledLesson.toInt();
+            timePenalty += scheduledLessonPenalties.getTimePenalty();
+            roomPenalty += scheduledLessonPenalties.getRoomPenalty();
+        }
+
+        // Add the soft constraint penalties
+        int roomConstraintCost = 0;
+        int timeConstraintCost = 0;
+        int commonConstraintCost = 0;
+        for(Constraint c : getConstraintSet()) {
+            switch(c.getConstraintCategory()) {
+                case TIME:
+                    timeConstraintCost += c.computePenalties(this).penalty;
+                    break;
+                case ROOM:
+                    roomConstraintCost += c.computePenalties(this).penalty;
+                    break;
+                case COMMON:
+                    commonConstraintCost += c.computePenalties(this).penalty;
+                    break;
+                default:
+                    throw new RuntimeException("Constraint category " + c.getConstraintCategory() + " unsupported");
+            }
+        }
+        roomConstraintCost = roomConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
+        timeConstraintCost = timeConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
+        commonConstraintCost = commonConstraintCost * dataModel.getTimetableConfiguration().getDistribWeight();
+
+        return new PenaltySum(roomPenalty + roomConstraintCost, timePenalty + timeConstraintCost, commonConstraintCost);
+    }
+
+    /**
+     * Computes the cost of the timetable with the temporary lesson from the running totals. Only the constraints of
+     * the class of the temporary lesson are computed, from the pairs of the temporary lesson when the constraint allows
+     * it, and the running totals aren't changed.
+     * @return The penalties of the timetable with the temporary lesson
+     */
+    private PenaltySum computeTemporaryCost() {
+        int roomPenalty = lessonRoomPenalty;
+        int timePenalty = lessonTimePenalty;
+
+        // Replace the penalties of the original lesson by the ones of the temporary lesson
+        if(originalLesson != null) {
+            PenaltySum originalLessonPenalties = originalLesson.toInt();
+            roomPenalty -= originalLessonPenalties.getRoomPenalty();
+            timePenalty -= originalLessonPenalties.getTimePenalty();
+        }
+        PenaltySum temporaryLessonPenalties = temporaryLesson.toInt();
+        roomPenalty += temporaryLessonPenalties.getRoomPenalty();
+        timePenalty += temporaryLessonPenalties.getTimePenalty();
+
+        int roomConstraintCost = roomConstraintPenalty;
+        int timeConstraintCost = timeConstraintPenalty;
+        int commonConstraintCost = commonConstraintPenalty;
+        // A constraint may be in the list of the class more than once but is only counted once, as in the cost
+        List<Constraint> temporaryConstraints = getTemporaryClassUnit().getConstraintList();
+        final int temporaryConstraintsSize = temporaryConstraints.size();
+        for(int i = 0; i < temporaryConstraintsSize; i++) {
+            Constraint c = temporaryConstraints.get(i);
+            if(temporaryConstraints.indexOf(c) != i) continue;
+
+            int difference = computeTemporaryPenalty(c) - getCachedPenalty(c);
+
+            switch(c.getConstraintCategory()) {
+                case TIME:
+                    timeConstraintCost += difference;
+                    break;
+                case ROOM:
+                    roomConstraintCost += difference;
+                    break;
+                case COMMON:
+                    commonConstraintCost += difference;
+                    break;
+                default:
+                    throw new RuntimeException("Constraint category " + c.getConstraintCategory() + " unsupported");
+            }
+        }
+
+        int distribWeight = dataModel.getTimetableConfiguration().getDistribWeight();
+        return new PenaltySum(roomPenalty + roomConstraintCost * distribWeight,
+                timePenalty + timeConstraintCost * distribWeight,
+                commonConstraintCost * distribWeight);
+    }
+
+    private ClassUnit getTemporaryClassUnit() {
+        ClassUnit cls = temporaryLesson.getClassUnit();
+        if (cls == null) {
+            throw new IllegalStateException("Timetable: ClassUnit of scheduled lesson is null!");
+        }
+        return cls;
+    }
+
+    private int getCachedPenalty(Constraint c) {
+        return constraintPenalties.getInt(c);
+    }
+
+    /**
+     * Computes the penalty of a constraint of the class of the temporary lesson. If the constraint is in the cache
+     * only the change from the original lesson to the temporary lesson is evaluated.
+     */
+    private int computeTemporaryPenalty(Constraint c) {
+        if(constraintPenalties.containsKey(c)) {
+            return c.computePenaltyAfterChange(this, constraintPenalties.getInt(c), originalLesson, temporaryLesson);
+        }
+        return c.computePenalties(this).penalty;
+    }
+
+    /**
+     * Adds (or subtracts) the time and room penalties of a lesson to the running totals
+     * @param scheduledLesson Lesson of which the penalties are considered
+     * @param sign 1 to add the penalties, -1 to subtract them
+     */
+    private void updateLessonPenalty(ScheduledLesson scheduledLesson, int sign) {
+        PenaltySum scheduledLessonPenalties = scheduledLesson.toInt();
+        lessonTimePenalty += sign * scheduledLessonPenalties.getTimePenalty();
+        lessonRoomPenalty += sign * scheduledLessonPenalties.getRoomPenalty();
+        updateCost = true;
+    }
+
+    /**
+     * Marks the constraints of a class to be recomputed the next time the cost or validity is needed
+     * @param cls Class of which the constraints are marked
+     * @param previousLesson Lesson of the class before the change (null if it wasn't scheduled)
+     */
+    private void markConstraintsDirty(ClassUnit cls, ScheduledLesson previousLesson) {
+        if (cls == null) {
+            throw new IllegalStateException("Timetable: ClassUnit of scheduled lesson is null!");
+        }
+
+        // Only the first lesson of the class is kept, the dirty constraints were computed with it
+        if(!changedLessons.containsKey(cls.getIntId())) {
+            changedLessons.put(cls.getIntId(), previousLesson);
+        }
+        dirtyConstraints.addAll(cls.getConstraintList());
+        updateCost = true;
+    }
+
+    /**
+     * Recomputes the dirty constraints and updates the running totals with the difference to the last penalty computed.
+     * If only one class changed, the constraints are computed from the change of its lesson.
+     */
+    private void updateDirtyConstraints() {
+        if(dirtyConstraints.isEmpty()) {
+            // The classes that changed don't have constraints
+            changedLessons.clear();
+            return;
+        }
+
+        ScheduledLesson previousLesson = null;
+        ScheduledLesson newLesson = null;
+        boolean singleChange = changedLessons.size() == 1;
+        if(singleChange) {
+            Int2ObjectMap.Entry<ScheduledLesson> change = changedLessons.int2ObjectEntrySet().iterator().next();
+            previousLesson = change.getValue();
+            newLesson = scheduledLessonMap.get(change.getIntKey());
+        }
+
+        for(Constraint c : dirtyConstraints) {
+            boolean cached = constraintPenalties.containsKey(c);
+            int previousPenalty = constraintPenalties.getInt(c);
+            int penalty = singleChange && cached
+                    ? c.computePenaltyAfterChange(this, previousPenalty, previousLesson, newLesson)
+                    : c.computePenalties(this).penalty;
+
+            constraintPenalties.put(c, penalty);
+            updateConstraintCategoryPenalty(c, penalty - previousPenalty);
+            updateViolatedRequiredConstraints(c, previousPenalty, penalty);
+        }
+        dirtyConstraints.clear();
+        changedLessons.clear();
+    }
+
+    /**
+     * The dirty constraints are only computed from the change of a lesson when a single class changed. Before a lesson
+     * of another class is changed, the pending changes are applied to the running totals, so moves that change several
+     * classes (such as swaps) are also evaluated one lesson at a time.
+     * @param classId Int id of the class that is about to change
+     */
+    private void updateChangesOfOtherClass(int classId) {
+        if(costInitialized && !changedLessons.isEmpty() && !changedLessons.containsKey(classId)) {
+            updateDirtyConstraints();
+        }
+    }
+
+    private void updateViolatedRequiredConstraints(Constraint c, int previousPenalty, int penalty) {
+        if(!c.getRequired()) return;
+
+        if(previousPenalty != 0) {
+            violatedRequiredConstraints--;
+        }
+        if(penalty != 0) {
+            violatedRequiredConstraints++;
+        }
+    }
+
+    private void updateConstraintCategoryPenalty(Constraint c, int difference) {
+        switch(c.getConstraintCategory()) {
+            case TIME:
+                timeConstraintPenalty += difference;
+                break;
+            case ROOM:
+                roomConstraintPenalty += difference;
+                break;
+            case COMMON:
+                commonConstraintPenalty += difference;
+                break;
+            default:
+                throw new RuntimeException("Constraint category " + c.getConstraintCategory() + " unsupported");
+        }
+        updateCost = true;
+    }
+
+    /**
+     * Checks if no required constraint is violated. Only the dirty constraints are computed, the rest of the
+     * constraints are accounted by the number of violated required constraints kept in the cache.
+     * @return True if the timetable is valid, false otherwise
+     */
     public boolean isValid() {
+        if(temporaryLesson != null) {
+            // The cache is kept for the timetable without the temporary lesson
+            return isValidWithTemporaryLesson();
+        }
+
         if(isValid == null) {
+            if(!costInitialized) {
+                initializeCost();
+            }
+            updateDirtyConstraints();
+
+            isValid = violatedRequiredConstraints == 0;
+        }
+
+        return isValid;
+    }
+
+    /**
+     * Checks if no required constraint is violated by computing every constraint, without using or changing the cache.
+     * It is slow and should only be used to verify the cached validity.
+     * @return True if the timetable is valid, false otherwise
+     */
+    public boolean checkValidity() {
+        for(Constraint c : collectConstraints()) {
+            if(c.getRequired() && c.computePenalties(this).penalty != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isValidWithTemporaryLesson() {
+        if(!costInitialized) {
             for(Constraint c : getConstraintSet()) {
                 if(c.getRequired() && c.computePenalties(this).penalty != 0) {
-                    isValid = false;
-                    break;
+                    return false;
                 }
             }
+            return true;
+        }
+
+        // The constraints of the class of the temporary lesson are computed with it, the others are obtained from the
+        // number of violated required constraints of the cache (which is up to date, see addTemporaryLesson)
+        List<Constraint> temporaryConstraints = getTemporaryClassUnit().getConstraintList();
+        final int temporaryConstraintsSize = temporaryConstraints.size();
+        int otherViolatedConstraints = violatedRequiredConstraints;
+        for(int i = 0; i < temporaryConstraintsSize; i++) {
+            Constraint c = temporaryConstraints.get(i);
+            if(c.getRequired() && getCachedPenalty(c) != 0 && temporaryConstraints.indexOf(c) == i) {
+                otherViolatedConstraints--;
+            }
+        }
+        if(otherViolatedConstraints != 0) {
+            return false;
+        }
 
-            if(isValid == null) isValid = true;
+        for(int i = 0; i < temporaryConstraintsSize; i++) {
+            Constraint c = temporaryConstraints.get(i);
+            if(c.getRequired() && computeTemporaryPenalty(c) != 0) {
+                return false;
+            }
         }
 
-        return isValid;
+        return true;
     }
 
     public void clearCache() {
         isValid = null;
         updateConstraints = true;
         updateCost = true;
+        costInitialized = false;
     }
 
     @Override
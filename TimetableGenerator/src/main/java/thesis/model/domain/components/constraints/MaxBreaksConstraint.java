@@ -1,9 +1,8 @@
 package thesis.model.domain.components.constraints;
 
 import thesis.model.domain.components.*;
-import thesis.model.domain.components.constraints.utils.Block;
+import thesis.model.domain.components.constraints.utils.DaySlotBitmap;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class MaxBreaksConstraint extends Constraint {
@@ -11,60 +10,30 @@ public class MaxBreaksConstraint extends Constraint {
         super(id, restrictionType, penalty, required, param1, param2, timetableConfiguration, PenaltyTypes.ConstraintCategory.TIME);
     }
 
-    // The authors of this method are Edon Gashi and Kadri Sylejmani
+    // Based on the method of Edon Gashi and Kadri Sylejmani
     // source: https://github.com/edongashi/itc-2019
+    // The blocks of each day are found with bit scans on the occupied slots instead of sorting and merging lists of blocks
     @Override
     public ConstraintResults computePenalties(Timetable solution) {
         List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
         final int R = getFirstParameter();
         final int S = getSecondParameter();
         final int nrWeeks = getNrWeeks();
-        List<Block> blocks = new ArrayList<>();
-        List<Block> mergedBlocks = new ArrayList<>();
         int totalOverflows = 0;
 
-        ConstraintResults results = new ConstraintResults();
+        EvaluationContext context = solution.getEvaluationContext();
+        ConstraintResults results = context.results();
 
-        for(int w=0; w < getNrWeeks(); w++) {
-            for(int d=0; d < getNrDays(); d++) {
-                blocks.clear();
-                mergedBlocks.clear();
-
-                for (ScheduledLesson scheduledLesson : scheduledClasses) {
-                    if ((scheduledLesson.getDays() & (1 << d)) == 0 ||
-                        (scheduledLesson.getWeeks() & (1 << w)) == 0) {
-                        continue;
-                    }
-
-                    blocks.add(new Block(scheduledLesson.getStartSlot(), scheduledLesson.getEndSlot()));
-                }
-
-                var count = blocks.size();
-                if (count == 0) {
-                    continue;
-                }
-
-                blocks.sort(Block::CompareTo);
-
-                mergedBlocks.add(blocks.get(0));
-                for (int i = 1; i < count; i++)
-                {
-                    Block top = mergedBlocks.get(0);
-                    Block current = blocks.get(i);
-                    int topEnd = top.getEnd() + S;
-                    if (topEnd < current.getStart()) {
-                        // No overlap.
-                        mergedBlocks.add(current);
-                    } else { // Overlap
-                        // We need to expand range.
-                        mergedBlocks.remove(mergedBlocks.size() - 1);
-                        mergedBlocks.add(new Block(top.getStart(), Math.max(top.getEnd(), current.getEnd())));
-                    }
-                }
+        DaySlotBitmap daySlots = context.daySlots(getNrDays(), nrWeeks, getSlotsPerDay());
+        for (ScheduledLesson scheduledLesson : scheduledClasses) {
+            daySlots.addLesson(scheduledLesson.getDays(), scheduledLesson.getWeeks(), scheduledLesson.getStartSlot(), scheduledLesson.getEndSlot());
+        }
 
-                if (mergedBlocks.size() > R + 1)
-                {
-                    totalOverflows += mergedBlocks.size() - R - 1;
+        for(int w=0; w < nrWeeks; w++) {
+            for(int days = daySlots.getUsedDays(w); days != 0; days &= days - 1) {
+                int blocks = daySlots.countBlocks(w, Integer.numberOfTrailingZeros(days), S);
+                if (blocks > R + 1) {
+                    totalOverflows += blocks - R - 1;
                 }
             }
         }
@@ -72,7 +41,7 @@ public class MaxBreaksConstraint extends Constraint {
         results.penalty = getRequired()
                 ? totalOverflows > 0 ? Math.max(1, totalOverflows / nrWeeks) : 0
                 : getPenalty() * totalOverflows / nrWeeks;
-        results.conflictingClasses = this.getClassUnitIdList();
+        results.conflictingClasses = this.getClassUnitIntIds();
 
         return results;
     }
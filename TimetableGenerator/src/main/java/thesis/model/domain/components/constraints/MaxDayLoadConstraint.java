@@ -9,36 +9,42 @@ public class MaxDayLoadConstraint extends Constraint {
         super(id, restrictionType, penalty, required, param1, timetableConfiguration, PenaltyTypes.ConstraintCategory.TIME);
     }
 
-    // The authors of this method are Edon Gashi and Kadri Sylejmani
+    // Based on the method of Edon Gashi and Kadri Sylejmani
     // source: https://github.com/edongashi/itc-2019
+    // The length of each lesson is only added to the days and weeks set in its bitmaps
     @Override
     public ConstraintResults computePenalties(Timetable solution) {
+        EvaluationContext context = solution.getEvaluationContext();
         List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
         final int S = getFirstParameter();
         final int nrWeeks = getNrWeeks();
+        final short nrDays = getNrDays();
+        final int nrDayLoads = nrWeeks * nrDays;
+        int[] dayLoads = context.dayLoads(nrDayLoads); // (week, day) : sum of the lengths of the lessons
         int sum = 0;
 
-        ConstraintResults results = new ConstraintResults();
+        ConstraintResults results = context.results();
 
-        for(int week=0; week < getNrWeeks(); week++) {
-            for(short day=0; day < getNrDays(); day++) {
-                int dayLoad = 0;
-
-                for (ScheduledLesson scheduledLesson : scheduledClasses) {
-                    if ((scheduledLesson.getDays() & (1 << day)) != 0 &&
-                        (scheduledLesson.getWeeks() & (1 << week)) != 0) {
-                        dayLoad += scheduledLesson.getLength();
-                    }
+        int dayMask = (1 << nrDays) - 1;
+        int weekMask = nrWeeks >= Integer.SIZE ? -1 : (1 << nrWeeks) - 1;
+        for (ScheduledLesson scheduledLesson : scheduledClasses) {
+            int days = scheduledLesson.getDays() & dayMask;
+            for(int weeks = scheduledLesson.getWeeks() & weekMask; weeks != 0; weeks &= weeks - 1) {
+                int weekOffset = Integer.numberOfTrailingZeros(weeks) * nrDays;
+                for(int dayBits = days; dayBits != 0; dayBits &= dayBits - 1) {
+                    dayLoads[weekOffset + Integer.numberOfTrailingZeros(dayBits)] += scheduledLesson.getLength();
                 }
-
-                sum += Math.max(dayLoad - S, 0);
             }
         }
 
+        for(int i = 0; i < nrDayLoads; i++) {
+            sum += Math.max(dayLoads[i] - S, 0);
+        }
+
         results.penalty = getRequired()
                 ? sum > 0 ? Math.max(1, sum / nrWeeks) : 0
                 : getPenalty() * sum / nrWeeks;
-        results.conflictingClasses = this.getClassUnitIdList();
+        results.conflictingClasses = this.getClassUnitIntIds();
 
         return results;
     }
@@ -17,9 +17,9 @@ public class MaxDaysConstraint extends Constraint {
         final int D = getFirstParameter();
         int acc = 0;
 
-        ConstraintResults results = new ConstraintResults();
+        ConstraintResults results = solution.getEvaluationContext().results();
         results.penalty = 0;
-        results.conflictingClasses = this.getClassUnitIdList();
+        results.conflictingClasses = this.getClassUnitIntIds();
 
         for (ScheduledLesson scheduledLesson : scheduledClasses) {
             acc |= scheduledLesson.getDays();
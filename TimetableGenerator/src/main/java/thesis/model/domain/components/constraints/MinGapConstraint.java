@@ -2,48 +2,32 @@ package thesis.model.domain.components.constraints;
 
 import thesis.model.domain.components.*;
 
-import java.util.List;
-
-public class MinGapConstraint extends Constraint {
+public class MinGapConstraint extends PairwiseConstraint {
     public MinGapConstraint(int id, String restrictionType, Integer param1, Integer penalty, boolean required, TimetableConfiguration timetableConfiguration) {
         super(id, restrictionType, penalty, required, param1, timetableConfiguration, PenaltyTypes.ConstraintCategory.TIME);
     }
 
-    // The authors of this method are Edon Gashi and Kadri Sylejmani
-    // source: https://github.com/edongashi/itc-2019
     @Override
     public ConstraintResults computePenalties(Timetable solution) {
-        List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
-        final int G = getFirstParameter();
-        final int scheduledClassesSize = scheduledClasses.size();
-        int conflicts = 0;
-
-        ConstraintResults results = new ConstraintResults();
-
-        for(int i=0; i<scheduledClassesSize-1; i++) {
-            ScheduledLesson scheduledLesson1 = scheduledClasses.get(i);
-            int scheduledLesson1Start = scheduledLesson1.getStartSlot();
-            int scheduledLesson1End = scheduledLesson1.getEndSlot();
-
-            for(int j=i+1; j<scheduledClassesSize; j++) {
-                ScheduledLesson scheduledLesson2 = scheduledClasses.get(j);
-                int scheduledLesson2Start = scheduledLesson2.getStartSlot();
-                int scheduledLesson2End = scheduledLesson2.getEndSlot();
+        EvaluationContext context = solution.getEvaluationContext();
+        ConstraintResults results = context.results();
 
-                if ((scheduledLesson1.getDays() & scheduledLesson2.getDays()) == 0 ||
-                    (scheduledLesson1.getWeeks() & scheduledLesson2.getWeeks()) == 0 ||
-                    scheduledLesson1End + G <= scheduledLesson2Start ||
-                    scheduledLesson2End + G <= scheduledLesson1Start) {
-                    continue;
-                }
+        // Lessons that end at least G slots before the start of another are never in conflict with it
+        results.penalty = weight(countViolatedPairsBySweep(context, this.getScheduledClasses(solution), getFirstParameter(), null));
+        results.conflictingClasses = this.getClassUnitIntIds();
 
-                conflicts++;
-            }
-        }
+        return results;
+    }
 
-        results.penalty = getRequired() ? conflicts : conflicts * getPenalty();
-        results.conflictingClasses = this.getClassUnitIdList();
+    // The authors of this method are Edon Gashi and Kadri Sylejmani
+    // source: https://github.com/edongashi/itc-2019
+    @Override
+    protected boolean isViolated(ScheduledLesson scheduledLesson1, ScheduledLesson scheduledLesson2) {
+        final int G = getFirstParameter();
 
-        return results;
+        return (scheduledLesson1.getDays() & scheduledLesson2.getDays()) != 0 &&
+               (scheduledLesson1.getWeeks() & scheduledLesson2.getWeeks()) != 0 &&
+               scheduledLesson1.getEndSlot() + G > scheduledLesson2.getStartSlot() &&
+               scheduledLesson2.getEndSlot() + G > scheduledLesson1.getStartSlot();
     }
 }
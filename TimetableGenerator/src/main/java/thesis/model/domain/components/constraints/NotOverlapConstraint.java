@@ -2,41 +2,28 @@ package thesis.model.domain.components.constraints;
 
 import thesis.model.domain.components.*;
 
-import java.util.List;
-
-public class NotOverlapConstraint extends Constraint {
+public class NotOverlapConstraint extends PairwiseConstraint {
     public NotOverlapConstraint(int id, String type, Integer penalty, boolean required, TimetableConfiguration timetableConfiguration) {
         super(id, type, penalty, required, timetableConfiguration, PenaltyTypes.ConstraintCategory.TIME);
     }
 
-    // The authors of this method are Edon Gashi and Kadri Sylejmani
-    // source: https://github.com/edongashi/itc-2019
+    // Lessons that don't share any slot can't overlap, so only the lessons that are still going on when another
+    // starts are paired
     @Override
     public ConstraintResults computePenalties(Timetable solution) {
-        List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
-        int scheduledClassesSize = scheduledClasses.size();
-        int conflicts = 0;
-
-        ConstraintResults results = new ConstraintResults();
-
-        for(int i=0; i<scheduledClassesSize-1; i++) {
-            ScheduledLesson scheduledLesson1 = scheduledClasses.get(i);
-            Time scheduledLesson1Time = scheduledLesson1.getScheduledTime();
-
-            for(int j=i+1; j<scheduledClassesSize; j++) {
-                ScheduledLesson scheduledLesson2 = scheduledClasses.get(j);
-
-                if(!scheduledLesson1Time.overlaps(scheduledLesson2.getScheduledTime())){
-                    continue;
-                }
+        EvaluationContext context = solution.getEvaluationContext();
+        ConstraintResults results = context.results();
 
-                conflicts++;
-            }
-        }
-
-        results.penalty = getRequired() ? conflicts : conflicts * getPenalty();
-        results.conflictingClasses = this.getClassUnitIdList();
+        results.penalty = weight(countViolatedPairsBySweep(context, this.getScheduledClasses(solution), 0, null));
+        results.conflictingClasses = this.getClassUnitIntIds();
 
         return results;
     }
+
+    // The authors of this method are Edon Gashi and Kadri Sylejmani
+    // source: https://github.com/edongashi/itc-2019
+    @Override
+    protected boolean isViolated(ScheduledLesson scheduledLesson1, ScheduledLesson scheduledLesson2) {
+        return scheduledLesson1.getScheduledTime().overlaps(scheduledLesson2.getScheduledTime());
+    }
 }
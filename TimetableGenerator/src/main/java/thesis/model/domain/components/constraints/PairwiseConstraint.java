@@ -0,0 +1,163 @@
+package thesis.model.domain.components.constraints;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import thesis.model.domain.components.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Constraint of which the penalty is the number of pairs of lessons that violate it. The pairs are formed in the order
+ * the classes were added to the constraint. As the pairs are independent of each other, when only one lesson changes
+ * only the pairs of that lesson are checked.
+ */
+public abstract class PairwiseConstraint extends Constraint {
+    public PairwiseConstraint(int id, String type, Integer penalty, boolean required, TimetableConfiguration timetableConfiguration, PenaltyTypes.ConstraintCategory constraintCategory) {
+        super(id, type, penalty, required, timetableConfiguration, constraintCategory);
+    }
+
+    public PairwiseConstraint(int id, String type, Integer penalty, boolean required, Integer firstParam, TimetableConfiguration timetableConfiguration, PenaltyTypes.ConstraintCategory constraintCategory) {
+        super(id, type, penalty, required, firstParam, timetableConfiguration, constraintCategory);
+    }
+
+    /**
+     * Checks if a pair of lessons violates the constraint
+     * @param first Lesson of the class that was added first to the constraint
+     * @param second Lesson of the class that was added later
+     * @return True if the pair is in conflict, false otherwise
+     */
+    protected abstract boolean isViolated(ScheduledLesson first, ScheduledLesson second);
+
+    @Override
+    public ConstraintResults computePenalties(Timetable solution) {
+        List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
+        final int scheduledClassesSize = scheduledClasses.size();
+        int conflicts = 0;
+
+        ConstraintResults results = solution.getEvaluationContext().results();
+
+        for(int i=0; i<scheduledClassesSize-1; i++) {
+            ScheduledLesson scheduledLesson1 = scheduledClasses.get(i);
+
+            for(int j=i+1; j<scheduledClassesSize; j++) {
+                if(isViolated(scheduledLesson1, scheduledClasses.get(j))) {
+                    conflicts++;
+                }
+            }
+        }
+
+        results.penalty = weight(conflicts);
+        results.conflictingClasses = this.getClassUnitIntIds();
+
+        return results;
+    }
+
+    @Override
+    public int computePenaltyAfterChange(Timetable solution, int previousPenalty, ScheduledLesson previousLesson, ScheduledLesson newLesson) {
+        int classId = newLesson != null ? newLesson.getClassIntId() : previousLesson.getClassIntId();
+        IntList classIds = getClassUnitIntIdList();
+        int difference = 0;
+
+        // The pairs of the changed lesson are formed with the lessons of the classes before it and after it
+        boolean beforeChanged = true;
+        for(int i = 0; i < classIds.size(); i++) {
+            int otherClassId = classIds.getInt(i);
+            if(otherClassId == classId) {
+                beforeChanged = false;
+                continue;
+            }
+
+            ScheduledLesson other = solution.getScheduledLesson(otherClassId);
+            if(other == null) continue;
+
+            if(newLesson != null && (beforeChanged ? isViolated(other, newLesson) : isViolated(newLesson, other))) {
+                difference++;
+            }
+            if(previousLesson != null && (beforeChanged ? isViolated(other, previousLesson) : isViolated(previousLesson, other))) {
+                difference--;
+            }
+        }
+
+        return previousPenalty + weight(difference);
+    }
+
+    /**
+     * Counts the pairs in conflict with a sweep over the lessons sorted by their start. Each day is swept on its own, so
+     * a lesson is only paired with the lessons of the same day that started before it and end less than reach slots
+     * before its start. A pair is only checked on the first day both lessons have and only if they share a week, so it
+     * can only be used by constraints of which the lessons further apart or without a common day and week are never in
+     * conflict. The cost is O(n log n) plus a pass per day and the pairs that are close to each other in the same day,
+     * instead of every pair.
+     * @param context Evaluation context of the timetable, of which the buffers are used for the sort
+     * @param scheduledClasses Lessons of the constraint, in the order of their classes
+     * @param reach Number of slots after the end of a lesson in which it can still be in conflict with other lessons
+     * @param conflicts Set to which the class ids of the pairs in conflict are added. May be null if they aren't needed
+     * @return The number of pairs in conflict
+     */
+    protected int countViolatedPairsBySweep(EvaluationContext context, List<ScheduledLesson> scheduledClasses, int reach, IntSet conflicts) {
+        final int scheduledClassesSize = scheduledClasses.size();
+
+        // Start slot in the high bits and position in the low bits, so the lessons are sorted by start
+        long[] order = context.sortKeys(scheduledClassesSize);
+        int usedDays = 0;
+        for(int i = 0; i < scheduledClassesSize; i++) {
+            ScheduledLesson scheduledLesson = scheduledClasses.get(i);
+            order[i] = ((long) scheduledLesson.getStartSlot() << 32) | i;
+            usedDays |= scheduledLesson.getDays();
+        }
+        Arrays.sort(order, 0, scheduledClassesSize);
+
+        int[] active = context.positions(scheduledClassesSize); // Positions of the lessons that may still be in conflict
+        int violations = 0;
+        for(; usedDays != 0; usedDays &= usedDays - 1) {
+            int day = 1 << Integer.numberOfTrailingZeros(usedDays);
+            int earlierDays = day - 1;
+            int activeCount = 0;
+
+            for(int k = 0; k < scheduledClassesSize; k++) {
+                int position = (int) order[k];
+                ScheduledLesson scheduledLesson = scheduledClasses.get(position);
+                int days = scheduledLesson.getDays();
+                if((days & day) == 0) continue;
+
+                int start = scheduledLesson.getStartSlot();
+                int weeks = scheduledLesson.getWeeks();
+
+                int kept = 0;
+                for(int a = 0; a < activeCount; a++) {
+                    int otherPosition = active[a];
+                    ScheduledLesson other = scheduledClasses.get(otherPosition);
+                    if(other.getEndSlot() + reach <= start) {
+                        // Every lesson from now on starts after the reach of this one
+                        continue;
+                    }
+                    active[kept++] = otherPosition;
+
+                    // The pair was already checked in an earlier day or can't be in conflict
+                    if((other.getDays() & days & earlierDays) != 0 || (other.getWeeks() & weeks) == 0) continue;
+
+                    boolean violated = otherPosition < position
+                            ? isViolated(other, scheduledLesson)
+                            : isViolated(scheduledLesson, other);
+                    if(violated) {
+                        violations++;
+                        if(conflicts != null) {
+                            conflicts.add(other.getClassIntId());
+                            conflicts.add(scheduledLesson.getClassIntId());
+                        }
+                    }
+                }
+
+                activeCount = kept;
+                active[activeCount++] = position;
+            }
+        }
+
+        return violations;
+    }
+
+    protected int weight(int conflicts) {
+        return getRequired() ? conflicts : conflicts * getPenalty();
+    }
+}
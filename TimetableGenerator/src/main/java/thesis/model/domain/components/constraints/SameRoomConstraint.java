@@ -17,7 +17,7 @@ public class SameRoomConstraint extends Constraint {
         final int scheduledClassesSize = scheduledClasses.size();
         int conflicts = 0;
 
-        ConstraintResults results = new ConstraintResults();
+        ConstraintResults results = solution.getEvaluationContext().results();
 
         for(int i=0; i<scheduledClassesSize-1; i++) {
             ScheduledLesson scheduledLesson1 = scheduledClasses.get(i);
@@ -39,7 +39,7 @@ public class SameRoomConstraint extends Constraint {
         }
 
         results.penalty = getRequired() ? conflicts : conflicts * getPenalty();
-        results.conflictingClasses = this.getClassUnitIdList();
+        results.conflictingClasses = this.getClassUnitIntIds();
 
         return results;
     }
@@ -2,9 +2,7 @@ package thesis.model.domain.components.constraints;
 
 import thesis.model.domain.components.*;
 
-import java.util.List;
-
-public class SameWeeksConstraint extends Constraint {
+public class SameWeeksConstraint extends PairwiseConstraint {
     public SameWeeksConstraint(int id, String type, Integer penalty, boolean required, TimetableConfiguration timetableConfiguration) {
         super(id, type, penalty, required, timetableConfiguration, PenaltyTypes.ConstraintCategory.TIME);
     }
@@ -12,32 +10,11 @@ public class SameWeeksConstraint extends Constraint {
     // The authors of this method are Edon Gashi and Kadri Sylejmani
     // source: https://github.com/edongashi/itc-2019
     @Override
-    public ConstraintResults computePenalties(Timetable solution) {
-        List<ScheduledLesson> scheduledClasses = this.getScheduledClasses(solution);
-        final int scheduledClassesSize = scheduledClasses.size();
-        int conflicts = 0;
-
-        ConstraintResults results = new ConstraintResults();
-
-        for(int i=0; i<scheduledClassesSize-1; i++) {
-            ScheduledLesson scheduledLesson1 = scheduledClasses.get(i);
-
-            for(int j=i+1; j<scheduledClassesSize; j++) {
-                ScheduledLesson scheduledLesson2 = scheduledClasses.get(j);
-
-                int orWeeks = scheduledLesson1.getWeeks() | scheduledLesson2.getWeeks();
-
-                if((orWeeks == scheduledLesson1.getWeeks()) || (orWeeks == scheduledLesson2.getWeeks())){
-                    continue;
-                }
-
-                conflicts++;
-            }
-        }
-
-        results.penalty = getRequired() ? conflicts : conflicts * getPenalty();
-        results.conflictingClasses = this.getClassUnitIdList();
+    protected boolean isViolated(ScheduledLesson scheduledLesson1, ScheduledLesson scheduledLesson2) {
+        int weeks1 = scheduledLesson1.getWeeks();
+        int weeks2 = scheduledLesson2.getWeeks();
+        int orWeeks = weeks1 | weeks2;
 
-        return results;
+        return orWeeks != weeks1 && orWeeks != weeks2;
     }
 }
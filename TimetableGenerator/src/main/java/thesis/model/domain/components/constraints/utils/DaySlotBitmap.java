@@ -0,0 +1,190 @@
+package thesis.model.domain.components.constraints.utils;
+
+import java.util.Arrays;
+
+/**
+ * Occupied slots of every day of every week, stored as bitmaps of longs. The lessons are added by setting the bits of
+ * their slots in each of their days, so the blocks of lessons and the breaks between them can be found with bit scans
+ * instead of sorting and merging lists of blocks. The slots where lessons start are also kept, to know how many
+ * lessons form a block.
+ */
+public class DaySlotBitmap {
+    private final short nrDays;
+    private final int nrWeeks;
+    private final int wordsPerDay;
+    private final long[] slots;           // (week, day) : occupied slots
+    private final long[] starts;          // (week, day) : slots where at least one lesson starts
+    private final long[] repeatedStarts;  // (week, day) : slots where more than one lesson starts
+    private final int[] usedDays;         // Week : days with lessons
+
+    public DaySlotBitmap(short nrDays, int nrWeeks, int slotsPerDay) {
+        this.nrDays = nrDays;
+        this.nrWeeks = nrWeeks;
+        // One more bit than the slots of a day so a block always ends in a clear bit
+        this.wordsPerDay = slotsPerDay / Long.SIZE + 1;
+        this.slots = new long[nrWeeks * nrDays * wordsPerDay];
+        this.starts = new long[slots.length];
+        this.repeatedStarts = new long[slots.length];
+        this.usedDays = new int[nrWeeks];
+    }
+
+    /**
+     * Removes every lesson. Only the days which had lessons are cleared.
+     */
+    public void clear() {
+        for(int week = 0; week < nrWeeks; week++) {
+            for(int days = usedDays[week]; days != 0; days &= days - 1) {
+                int base = offset(week, Integer.numberOfTrailingZeros(days));
+                Arrays.fill(slots, base, base + wordsPerDay, 0L);
+                Arrays.fill(starts, base, base + wordsPerDay, 0L);
+                Arrays.fill(repeatedStarts, base, base + wordsPerDay, 0L);
+            }
+            usedDays[week] = 0;
+        }
+    }
+
+    /**
+     * Sets the slots of a lesson in every one of its days and weeks. Days and weeks outside the configuration are ignored.
+     * @param days Bitmap of the days of the lesson
+     * @param weeks Bitmap of the weeks of the lesson
+     * @param startSlot First slot of the lesson
+     * @param endSlot Slot after the last slot of the lesson
+     */
+    public void addLesson(int days, int weeks, int startSlot, int endSlot) {
+        int dayMask = days & ((1 << nrDays) - 1);
+        int weekMask = nrWeeks >= Integer.SIZE ? weeks : weeks & ((1 << nrWeeks) - 1);
+
+        for(; weekMask != 0; weekMask &= weekMask - 1) {
+            int week = Integer.numberOfTrailingZeros(weekMask);
+            usedDays[week] |= dayMask;
+
+            for(int dayBits = dayMask; dayBits != 0; dayBits &= dayBits - 1) {
+                int base = offset(week, Integer.numberOfTrailingZeros(dayBits));
+
+                int startWord = base + (startSlot >>> 6);
+                long startBit = 1L << startSlot;
+                repeatedStarts[startWord] |= starts[startWord] & startBit;
+                starts[startWord] |= startBit;
+
+                setRange(base, startSlot, endSlot);
+            }
+        }
+    }
+
+    /**
+     * Days of a week which have lessons
+     * @return Bitmap of the days
+     */
+    public int getUsedDays(int week) {
+        return usedDays[week];
+    }
+
+    /**
+     * Counts the blocks of a day. Two lessons belong to the same block if the break between them isn't longer than
+     * maxBreak slots.
+     */
+    public int countBlocks(int week, int day, int maxBreak) {
+        int base = offset(week, day);
+        int blocks = 0;
+
+        int blockStart = nextSetBit(slots, base, 0);
+        while(blockStart != -1) {
+            blockStart = nextSetBit(slots, base, blockEnd(base, blockStart, maxBreak));
+            blocks++;
+        }
+
+        return blocks;
+    }
+
+    /**
+     * Counts the blocks of a day formed by more than one lesson that are longer than maxLength slots. Two lessons belong
+     * to the same block if the break between them isn't longer than maxBreak slots.
+     */
+    public int countLongBlocks(int week, int day, int maxBreak, int maxLength) {
+        int base = offset(week, day);
+        int longBlocks = 0;
+
+        int blockStart = nextSetBit(slots, base, 0);
+        while(blockStart != -1) {
+            int blockEnd = blockEnd(base, blockStart, maxBreak);
+
+            // Every block begins with the start of a lesson, there is another lesson if any other start is inside the block
+            if(blockEnd - blockStart > maxLength && hasSeveralLessons(base, blockStart, blockEnd)) {
+                longBlocks++;
+            }
+
+            blockStart = nextSetBit(slots, base, blockEnd);
+        }
+
+        return longBlocks;
+    }
+
+    private int offset(int week, int day) {
+        return (week * nrDays + day) * wordsPerDay;
+    }
+
+    // Slot after the end of the block that begins in blockStart
+    private int blockEnd(int base, int blockStart, int maxBreak) {
+        int end = nextClearBit(slots, base, blockStart);
+        int next = nextSetBit(slots, base, end);
+        while(next != -1 && next - end <= maxBreak) {
+            end = nextClearBit(slots, base, next);
+            next = nextSetBit(slots, base, end);
+        }
+        return end;
+    }
+
+    private boolean hasSeveralLessons(int base, int blockStart, int blockEnd) {
+        int repeated = nextSetBit(repeatedStarts, base, blockStart);
+        if(repeated != -1 && repeated < blockEnd) {
+            return true;
+        }
+
+        int otherStart = nextSetBit(starts, base, blockStart + 1);
+        return otherStart != -1 && otherStart < blockEnd;
+    }
+
+    private void setRange(int base, int from, int to) {
+        if(from >= to) return;
+
+        int firstWord = base + (from >>> 6);
+        int lastWord = base + ((to - 1) >>> 6);
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if(firstWord == lastWord) {
+            slots[firstWord] |= firstMask & lastMask;
+            return;
+        }
+
+        slots[firstWord] |= firstMask;
+        for(int word = firstWord + 1; word < lastWord; word++) {
+            slots[word] = -1L;
+        }
+        slots[lastWord] |= lastMask;
+    }
+
+    private int nextSetBit(long[] bitmap, int base, int from) {
+        int wordIndex = from >>> 6;
+        if(wordIndex >= wordsPerDay) return -1;
+
+        long word = bitmap[base + wordIndex] & (-1L << from);
+        while(word == 0) {
+            if(++wordIndex == wordsPerDay) return -1;
+            word = bitmap[base + wordIndex];
+        }
+        return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    private int nextClearBit(long[] bitmap, int base, int from) {
+        int wordIndex = from >>> 6;
+        if(wordIndex >= wordsPerDay) return from;
+
+        long word = ~bitmap[base + wordIndex] & (-1L << from);
+        while(word == 0) {
+            if(++wordIndex == wordsPerDay) return wordsPerDay * Long.SIZE;
+            word = ~bitmap[base + wordIndex];
+        }
+        return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+}
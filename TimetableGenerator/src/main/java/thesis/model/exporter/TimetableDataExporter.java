@@ -125,7 +125,7 @@ public class TimetableDataExporter implements DataExporter {
                 .append("\" timeStampUTC12=\"").append(originalDateOfCreation).append("\">\n");
 
         Map<Teacher, List<String>> teacherClassMap = new HashMap<>();
-        for (ScheduledLesson scheduledLesson : timetable.getScheduledLessonList()) {
+        for (ScheduledLesson scheduledLesson : timetable.getScheduledLessons()) {
             String classId = scheduledLesson.getClassId();
             stringBuilder.append(addIndentation(INDENT_SIZE, "<class id=\"")).append(classId).append("\" ");
 
@@ -567,7 +567,7 @@ public class TimetableDataExporter implements DataExporter {
                         break;
                     case Scheduled_Lessons:
                         for(Timetable timetable : data.getTimetableList()) {
-                            for(ScheduledLesson lesson : timetable.getScheduledLessonList()) {
+                            for(ScheduledLesson lesson : timetable.getScheduledLessons()) {
                                 Row row = nextXLSXRow(sheet);
 
                                 Time time = lesson.getScheduledTime();
@@ -609,7 +609,7 @@ public class TimetableDataExporter implements DataExporter {
         for (int week = 0; week < maxWeeks; week++) {
             final int finalWeek = week;
             // collect active lessons this week
-            List<ScheduledLesson> active = timetable.getScheduledLessonList().stream()
+            List<ScheduledLesson> active = timetable.getScheduledLessons().stream()
                 .filter(l -> {
                     String weeks = l.getWeeksBinaryString();
                     return finalWeek < weeks.length() && weeks.charAt(finalWeek) == '1';
@@ -174,7 +174,7 @@ public class InputFormatParser implements InputFileReader {
                                 config.addSubpart(subpart);
                             }
 
-                            ClassUnit cls = new ClassUnit(classUnitId);
+                            ClassUnit cls = ClassUnitFastIdFactory.createClassUnit(classUnitId);
                             cls.setParentClassId(parentClassUnitId);
                             subpart.addClassUnit(cls);
 
@@ -371,6 +371,10 @@ public class InputFormatParser implements InputFileReader {
                                 throw new ParsingException("Timetable with id " + solutionId + " found in scheduled lessons wasn't defined as a Timetable");
                             }
 
+                            if(repository.getClassUnit(classId) == null) {
+                                throw new ParsingException("Class Unit " + classId + " found in scheduled lessons wasn't defined as a class");
+                            }
+
                             ScheduledLesson scheduledLesson = new ScheduledLesson(classId, roomId, days, weeks, startSlot, length);
 
                             if(teacherIds != null) {
@@ -527,6 +531,9 @@ public class InputFormatParser implements InputFileReader {
 
                                 try {
                                     ScheduledLesson scheduledLesson = new ScheduledLesson(classId, roomId, days, weeks, start, "0");
+                                    if(!ClassUnitFastIdFactory.hasId(scheduledLesson.getClassId())) {
+                                        throw new ParsingException(event.getLocation(), "Class Unit " + classId + " found in the solution wasn't defined as a class");
+                                    }
                                     scheduledLessonMap.put(scheduledLesson.getClassId(), scheduledLesson);
                                     timetable.addScheduledLesson(scheduledLesson);
                                 } catch (CheckedIllegalArgumentException e) {
@@ -849,7 +856,7 @@ public class InputFormatParser implements InputFileReader {
                             }
                             classUnitIds.add(classId);
 
-                            cls = new ClassUnit(classId);
+                            cls = ClassUnitFastIdFactory.createClassUnit(classId);
                             data.addClassUnit(cls);
 
                             if(parentClassId != null) {
@@ -1065,14 +1072,14 @@ public class InputFormatParser implements InputFileReader {
                             }
                             String classId = getAttributeValue(startElement, "id");
 
-                            constraint.addClassUnitId(classId);
-
                             ClassUnit cls = data.getClassUnit(classId);
                             if(cls == null) {
                                 throw new ParsingException(event.getLocation(), "The class id provided doesn't exist");
                             }
                             cls.addConstraint(constraint);
 
+                            constraint.addClassUnitId(classId);
+
                             break;
                     }
                     break;
@@ -89,7 +89,7 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
         }
     }
 
-    private void syncRooms(InMemoryRepository repo, List<RoomEntity> roomEntities) throws CheckedIllegalArgumentException {
+    static void syncRooms(InMemoryRepository repo, List<RoomEntity> roomEntities) throws CheckedIllegalArgumentException {
         for (RoomEntity entity : roomEntities) {
             Room room = repo.getRoom(entity.getName());
 
@@ -109,10 +109,12 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
                     unavailabilityEntity.getStartSlot(),
                     unavailabilityEntity.getDuration()));
             }
+
+            repo.markChanged();
         }
     }
 
-    private void syncTeachers(InMemoryRepository repo, List<TeacherEntity> teacherEntities) throws CheckedIllegalArgumentException {
+    static void syncTeachers(InMemoryRepository repo, List<TeacherEntity> teacherEntities) throws CheckedIllegalArgumentException {
         for (TeacherEntity entity : teacherEntities) {
             Teacher teacher = repo.getTeacher(entity.getId());
             if (teacher == null) continue;
@@ -126,6 +128,8 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
                     teacherUnavailabilityEntity.getStartSlot(),
                     teacherUnavailabilityEntity.getDuration());
             }
+
+            repo.markChanged();
         }
     }
 
@@ -221,6 +225,10 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
                     scheduledLessonEntity.getTimeBlockEntity().getStartSlot(),
                     scheduledLessonEntity.getTimeBlockEntity().getDuration());
 
+                if(!ClassUnitFastIdFactory.hasId(scheduledLesson.getClassId())) {
+                    throw new CheckedIllegalArgumentException("Class Unit " + scheduledLesson.getClassId() + " of the solution " + timetableEntity.getId() + " wasn't defined as a class");
+                }
+
                 timetable.addScheduledLesson(scheduledLesson);
             }
 
@@ -277,7 +285,7 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
 
                     session.persist(timetableEntity);
 
-                    for(ScheduledLesson scheduledLesson : timetable.getScheduledLessonList()) {
+                    for(ScheduledLesson scheduledLesson : timetable.getScheduledLessons()) {
                         Time lessonTime = scheduledLesson.getScheduledTime();
                         RoomEntity roomEntity = scheduledLesson.getRoomId() != null ? roomEntityFactory.getOrCreateRoom(scheduledLesson.getRoomId()) : null;
 
@@ -570,7 +578,7 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
                 for(SubpartEntity subpartEntity : configEntity.getSubpartSet()) {
                     Subpart subpart = new Subpart(subpartEntity.getSubpartNameEntity().getName());
                     for(ClassUnitEntity classUnitEntity : subpartEntity.getClassUnitSet()) {
-                        ClassUnit classUnit = new ClassUnit(classUnitEntity.getClassUnitNameEntity().getName());
+                        ClassUnit classUnit = ClassUnitFastIdFactory.createClassUnit(classUnitEntity.getClassUnitNameEntity().getName());
                         classUnit.setParentClassId(classUnit.getParentClassId());
 
                         for(TeacherClassEntity teacherClassEntity : classUnitEntity.getTeacherClassEntitySet()) {
@@ -620,6 +628,10 @@ public class DBHibernateManager implements DBManager<InMemoryRepository> {
                     scheduledLesson.addTeacherId(scheduledLessonTeacherEntity.getTeacher().getId());
                 }
 
+                if(data.getClassUnit(scheduledLesson.getClassId()) == null) {
+                    throw new CheckedIllegalArgumentException("Class Unit " + scheduledLesson.getClassId() + " of the solution " + timetableEntity.getId() + " wasn't defined as a class");
+                }
+
                 scheduledLesson.bindModel(data);
                 timetable.addScheduledLesson(scheduledLesson);
             }
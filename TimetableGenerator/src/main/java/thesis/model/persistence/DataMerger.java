@@ -324,7 +324,7 @@ public class DataMerger {
 
         // Check if the lesson is present in the timetable entity.
         // If the lesson is not present create it, else set the new values (which may or may not be equal to the previous ones)
-        timetable.getScheduledLessonList().forEach((scheduledLesson) -> {
+        timetable.getScheduledLessons().forEach((scheduledLesson) -> {
             String lessonClassId = scheduledLesson.getClassId();
             Time lessonTime = scheduledLesson.getScheduledTime();
 
@@ -357,7 +357,7 @@ public class DataMerger {
         TimetableEntity timetableEntity = new TimetableEntity(timetable.getTimetableId(), programEntity, timetable.getDateOfCreation(), timetable.getRuntime());
         session.persist(timetableEntity);
 
-        for(ScheduledLesson lesson : timetable.getScheduledLessonList()) {
+        for(ScheduledLesson lesson : timetable.getScheduledLessons()) {
             Time lessonTime = lesson.getScheduledTime();
 
             ClassUnitEntity classUnitEntity = classUnitMap.get(lesson.getClassId());
@@ -1,77 +1,80 @@
 package thesis.model.solver.core;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import thesis.model.domain.InMemoryRepository;
 import thesis.model.domain.components.*;
+import thesis.utils.IndexedSet;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultISGSolution implements ISGSolution<InMemoryRepository, DefaultISGValue, DefaultISGVariable> {
-    private final InMemoryRepository dataModel;
-    private final Collection<DefaultISGVariable> variableCollection = new HashSet<>();
-    private final Collection<DefaultISGVariable> unassignedVariableCollection = ConcurrentHashMap.newKeySet();
+    private static final Logger logger = LoggerFactory.getLogger(DefaultISGSolution.class);
+    private static final int UNASSIGNED = -1;       // Value index of an unassigned variable
+    private static final int NOT_IN_DOMAIN = -2;    // Value index of a value that isn't in the values of the variable
 
-    private List<DefaultISGVariable> bestUnassignedVariableCollection;
-    private List<DefaultISGVariable> bestAssignedVariableCollection;
+    private final InMemoryRepository dataModel;
+    // Indexed sets so a random variable can be chosen in constant time
+    private final Collection<DefaultISGVariable> variableCollection = new IndexedSet<>();
+    private final Collection<DefaultISGVariable> unassignedVariableCollection = new IndexedSet<>();
+    private final Int2ObjectMap<DefaultISGVariable> assignedVariableMap = new Int2ObjectOpenHashMap<>(); // Class int id : assigned variable
+
+    private int[] valueIndexes = new int[0]; // Class int id : index of the assigned value in the values of the variable
+    private int[] bestValueIndexes;
+    private int bestUnassignedCount;
     private Integer bestValue;
     private long iteration = 0;
 
     // Variables for optimizations
-    private final Map<String, Set<ScheduledLesson>> lessonsByRoom;
-    private final Map<Integer, Set<ScheduledLesson>> lessonsByTeacher;
-    private boolean updateSolution = true;
-    private Timetable solution;
+    private final OccupancyGrid<String> roomOccupancy;
+    private final OccupancyGrid<Integer> teacherOccupancy;
+    private Timetable solution; // Kept up to date with the assigned variables once it is created
+    private final ValueDomainCache valueDomainCache; // Shared with every solution of the same repository version
+    private final IntOpenHashSet conflictScratch = new IntOpenHashSet(); // Reused by countConflicts
+
+    // Pending move (only the moved variables are changed, the rest of the solution is kept as is)
+    private final List<DefaultISGVariable> movedVariables = new ArrayList<>();
+    private final List<DefaultISGValue> movedVariablesPreviousValues = new ArrayList<>();
 
     public DefaultISGSolution(InMemoryRepository dataModel) {
         this.dataModel = dataModel;
-        this.lessonsByRoom = new HashMap<>();
-        this.lessonsByTeacher = new HashMap<>();
+        this.valueDomainCache = ValueDomainCache.of(dataModel);
+        this.roomOccupancy = new OccupancyGrid<>(dataModel.getTimetableConfiguration());
+        this.teacherOccupancy = new OccupancyGrid<>(dataModel.getTimetableConfiguration());
     }
 
     // Deep copy of another solution
     public DefaultISGSolution(DefaultISGSolution other) {
         this.dataModel = other.dataModel;
+        this.valueDomainCache = other.valueDomainCache;
+        this.valueIndexes = other.valueIndexes.clone();
 
         // Copy the collections of assigned and unassigned variables
         other.variableCollection.forEach((var) -> {
-            this.variableCollection.add(new DefaultISGVariable(this, var));
+            addAssignedVariable(new DefaultISGVariable(this, var));
         });
         other.unassignedVariableCollection.forEach((var) -> {
             this.unassignedVariableCollection.add(new DefaultISGVariable(this, var));
         });
 
-        // If there was a saveBest copy the best assigned and best unassigned variables
-        if(other.bestAssignedVariableCollection != null) {
-            this.bestAssignedVariableCollection = new ArrayList<>();
-
-            other.bestAssignedVariableCollection.forEach((var) -> {
-                this.bestAssignedVariableCollection.add(new DefaultISGVariable(this, var));
-            });
+        // If there was a saveBest copy the best values and cost
+        if(other.bestValueIndexes != null) {
+            this.bestValueIndexes = other.bestValueIndexes.clone();
         }
-        if(other.bestUnassignedVariableCollection != null) {
-            this.bestUnassignedVariableCollection = new ArrayList<>();
-
-            other.bestUnassignedVariableCollection.forEach((var) -> {
-                this.bestUnassignedVariableCollection.add(new DefaultISGVariable(this, var));
-            });
-        }
-
-        // Copy the best cost
+        this.bestUnassignedCount = other.bestUnassignedCount;
         this.bestValue = other.bestValue;
 
-        // Copy the last solution created and the flag to update
-        this.updateSolution = other.updateSolution;
-        this.solution = other.solution;
+        // The timetable is not shared as it is changed with the assignments.
+        // It is created again when needed
+        this.solution = null;
 
         // Deep copy the memory of room and teacher conflicts
-        this.lessonsByRoom = new HashMap<>();
-        other.lessonsByRoom.forEach((room, set) ->
-            this.lessonsByRoom.put(room, new HashSet<>(set))
-        );
-        this.lessonsByTeacher = new HashMap<>();
-        other.lessonsByTeacher.forEach((teacher, set) ->
-            this.lessonsByTeacher.put(teacher, new HashSet<>(set))
-        );
+        this.roomOccupancy = new OccupancyGrid<>(other.roomOccupancy);
+        this.teacherOccupancy = new OccupancyGrid<>(other.teacherOccupancy);
     }
 
     public void deactivateRemovals() {
@@ -85,15 +88,13 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
 
     @Override
     public Timetable solution() {
-        if(updateSolution) {
+        if(solution == null) {
             solution = new Timetable(dataModel.getProgramName());
             solution.bindDataModel(dataModel);
 
             for (DefaultISGVariable variable : variableCollection) {
                 solution.addScheduledLesson(variable.getAssignment().value());
             }
-
-            updateSolution = false;
         }
 
         return solution;
@@ -119,9 +120,18 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
         return variableCollection;
     }
 
+    /**
+     * Obtains the assigned variable of a class
+     * @param classId Dense id of the class
+     * @return The variable of the class or null if the class is not assigned
+     */
+    public DefaultISGVariable getAssignedVariable(int classId) {
+        return assignedVariableMap.get(classId);
+    }
+
     @Override
-    public Collection<DefaultISGVariable> getBestUnassignedVariables() {
-        return bestUnassignedVariableCollection;
+    public int getBestUnassignedCount() {
+        return bestUnassignedCount;
     }
 
     @Override
@@ -146,23 +156,97 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
     @Override
     public void addUnassignedVariable(DefaultISGVariable var) {
         unassignedVariableCollection.add(var);
+        setValueIndex(var, null);
     }
 
     @Override
     public void addAssignedVariable(DefaultISGVariable var) {
         variableCollection.add(var);
+        assignedVariableMap.put(var.variable().getIntId(), var);
+        setValueIndex(var, var.getAssignment());
+    }
+
+    /**
+     * Stores the index of the value assigned to the variable, so the best solution can be saved by copying the indexes
+     * @param value Value assigned to the variable or null if the variable is unassigned
+     */
+    private void setValueIndex(DefaultISGVariable var, DefaultISGValue value) {
+        int classId = var.variable().getIntId();
+        if(classId >= valueIndexes.length) {
+            int oldLength = valueIndexes.length;
+            valueIndexes = Arrays.copyOf(valueIndexes, Math.max(classId + 1, oldLength * 2));
+            Arrays.fill(valueIndexes, oldLength, valueIndexes.length, UNASSIGNED);
+        }
+
+        if(value == null) {
+            valueIndexes[classId] = UNASSIGNED;
+        } else {
+            int index = var.indexOf(value);
+            valueIndexes[classId] = index >= 0 ? index : NOT_IN_DOMAIN;
+        }
     }
 
     @Override
     public boolean isSolutionValid() {
-        return unassignedVariableCollection.isEmpty() && solution().isValid();
+        if(!unassignedVariableCollection.isEmpty()) {
+            return false;
+        }
+
+        // The timetable keeps the number of violated required constraints up to date
+        boolean valid = solution().isValid();
+
+        // In debug mode the cached validity is verified against a full check of the constraints
+        if(logger.isDebugEnabled() && valid != solution.checkValidity()) {
+            String message = "The cached validity of the solution (" + valid + ") is different from the full check";
+            logger.error(message);
+            throw new IllegalStateException(message);
+        }
+
+        return valid;
     }
 
     @Override
-    public Set<String> conflictIds(DefaultISGValue value) {
+    public IntSet conflictIds(DefaultISGValue value) {
+        IntSet conflicts = new IntOpenHashSet();
+        collectConflicts(value, conflicts, Integer.MAX_VALUE);
+        return conflicts;
+    }
+
+    /**
+     * Adds the ids of the classes that conflict with the value to the set given, without creating a new set
+     * @param value Value to be checked
+     * @param conflicts Set to which the dense ids of the classes in conflict are added
+     */
+    public void collectConflicts(DefaultISGValue value, IntSet conflicts) {
+        collectConflicts(value, conflicts, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the classes that conflict with the value, without creating a new set. The search stops as soon as the
+     * number of conflicts is higher than the limit given.
+     * @param value Value to be checked
+     * @param limit Maximum number of conflicts that is relevant for the caller
+     * @return The number of conflicting classes, or a number higher than the limit if the search stopped early. If the
+     * limit is negative nothing is evaluated and 0 is returned
+     */
+    public int countConflicts(DefaultISGValue value, int limit) {
+        conflictScratch.clear();
+        if(limit < 0) {
+            return 0;
+        }
+
+        collectConflicts(value, conflictScratch, limit);
+        return conflictScratch.size();
+    }
+
+    /**
+     * Adds the ids of the classes that conflict with the value (through the required constraints of its class or the
+     * occupancy of its room and teachers) to the set given.
+     * @param limit The search stops once the set has more conflicts than this limit
+     */
+    private void collectConflicts(DefaultISGValue value, IntSet conflicts, int limit) {
         Timetable timetable = solution();
         ScheduledLesson valueLesson = value.value();
-        Set<String> conflicts = new HashSet<>();
 
         DefaultISGVariable var = value.variable();
         if(var == null) {
@@ -175,50 +259,81 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
 
         // Add the constraint conflicts
         timetable.addTemporaryLesson(valueLesson);
-        for (Constraint constraint : cls.getConstraintList()) {
-            ConstraintResults constraintResults = constraint.computePenalties(timetable);
-            if(constraint.getRequired() && constraintResults.penalty != 0) {
-                conflicts.addAll(constraintResults.conflictingClasses);
+        try {
+            for (Constraint constraint : cls.getConstraintList()) {
+                if(conflicts.size() > limit) return;
+                if(!constraint.getRequired()) continue;
+
+                ConstraintResults constraintResults = constraint.computePenalties(timetable);
+                if(constraintResults.penalty != 0) {
+                    conflicts.addAll(constraintResults.conflictingClasses);
+                }
             }
+        } finally {
+            timetable.removeTemporaryLesson(valueLesson);
         }
-        timetable.removeTemporaryLesson(valueLesson);
 
-        // Variables to avoid multiple method calls in the for loop
-        String valueClassId = valueLesson.getClassId();
+        // Variables to avoid multiple method calls
+        int valueClassId = valueLesson.getClassIntId();
         String valueRoomId = valueLesson.getRoomId();
         Time valueTime = valueLesson.getScheduledTime();
-        Set<Integer> valueTeachers = valueLesson.getTeacherIds();
 
         // Add the room conflicts
+        if(conflicts.size() > limit) return;
         if (valueRoomId != null) {
-            for (ScheduledLesson scheduledLesson : lessonsByRoom.getOrDefault(valueRoomId, Collections.emptySet())) {
-                String classId = scheduledLesson.getClassId();
-                if (classId.equals(valueClassId) || conflicts.contains(classId)) continue;
+            roomOccupancy.collectOverlaps(valueRoomId, valueTime, getRoomTravelTime(valueLesson), valueClassId, conflicts);
+        }
 
-                Room scheduledLessonRoom = scheduledLesson.getRoom();
-                int travelTime = scheduledLessonRoom != null ? scheduledLessonRoom.getRoomDistance(RoomFastIdFactory.getId(valueRoomId)) : 0;
+        // Add the teacher conflicts
+        for (int teacherId : valueLesson.getTeacherIdArray()) {
+            if(conflicts.size() > limit) return;
+            teacherOccupancy.collectOverlaps(teacherId, valueTime, 0, valueClassId, conflicts);
+        }
+    }
 
-                // There is only a conflict if the times overlap
-                if (scheduledLesson.getScheduledTime().overlaps(valueTime, travelTime)) {
-                    conflicts.add(classId);
-                }
-            }
+    /**
+     * Checks if the room and teachers of the value are free at its time, ignoring the lessons of its own class.
+     * It is much cheaper than {@link #conflictIds(DefaultISGValue)} as the constraints aren't evaluated.
+     * @param value Value to be checked
+     * @return True if no lesson occupies the room or the teachers of the value at the same time, false otherwise
+     */
+    public boolean areResourcesFree(DefaultISGValue value) {
+        ScheduledLesson valueLesson = value.value();
+        int valueClassId = valueLesson.getClassIntId();
+        String valueRoomId = valueLesson.getRoomId();
+        Time valueTime = valueLesson.getScheduledTime();
+
+        if (valueRoomId != null && !roomOccupancy.isFree(valueRoomId, valueTime, getRoomTravelTime(valueLesson), valueClassId)) {
+            return false;
         }
 
-        // Add the teacher conflicts
-        for (int teacherId : valueTeachers) {
-            for (ScheduledLesson scheduledLesson : lessonsByTeacher.getOrDefault(teacherId, Collections.emptySet())) {
-                String classId = scheduledLesson.getClassId();
-                if (classId.equals(valueClassId) || conflicts.contains(classId)) continue;
-
-                // There is only a conflict if the times overlap
-                if (scheduledLesson.getScheduledTime().overlaps(valueTime)) {
-                    conflicts.add(classId);
-                }
+        for (int teacherId : valueLesson.getTeacherIdArray()) {
+            if (!teacherOccupancy.isFree(teacherId, valueTime, 0, valueClassId)) {
+                return false;
             }
         }
 
-        return conflicts;
+        return true;
+    }
+
+    /**
+     * Two lessons in the same room must be separated by the distance of the room to itself
+     */
+    private int getRoomTravelTime(ScheduledLesson scheduledLesson) {
+        Room room = dataModel.getRoom(scheduledLesson.getRoomId());
+        return room != null ? room.getRoomDistance(room.getIntId()) : 0;
+    }
+
+    public ValueDomainCache getValueDomainCache() {
+        return valueDomainCache;
+    }
+
+    public OccupancyGrid<String> getRoomOccupancy() {
+        return roomOccupancy;
+    }
+
+    public OccupancyGrid<Integer> getTeacherOccupancy() {
+        return teacherOccupancy;
     }
 
     @Override
@@ -230,20 +345,24 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
 
         unassignedVariableCollection.remove(var);
         variableCollection.add(var);
+        assignedVariableMap.put(var.variable().getIntId(), var);
+        setValueIndex(var, var.getAssignment());
 
         addToMemory(var.getAssignment().value());
 
-        updateSolution = true;
+        if(solution != null) {
+            solution.addScheduledLesson(var.getAssignment().value());
+        }
     }
 
     private void addToMemory(ScheduledLesson scheduledLesson) {
         String roomId = scheduledLesson.getRoomId();
         if(roomId != null) {
-            lessonsByRoom.computeIfAbsent(roomId, k -> new HashSet<>()).add(scheduledLesson);
+            roomOccupancy.add(roomId, scheduledLesson);
         }
 
-        for(Integer teacherId : scheduledLesson.getTeacherIds()) {
-            lessonsByTeacher.computeIfAbsent(teacherId, k -> new HashSet<>()).add(scheduledLesson);
+        for(int teacherId : scheduledLesson.getTeacherIdArray()) {
+            teacherOccupancy.add(teacherId, scheduledLesson);
         }
     }
 
@@ -255,54 +374,172 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
         }
 
         variableCollection.remove(var);
+        assignedVariableMap.remove(var.variable().getIntId());
         unassignedVariableCollection.add(var);
+        setValueIndex(var, null);
 
         removeFromMemory(var.getAssignment().value());
 
-        updateSolution = true;
+        if(solution != null) {
+            solution.removeScheduledLesson(var.variable().getIntId());
+        }
     }
 
     private void removeFromMemory(ScheduledLesson scheduledLesson) {
         String roomId = scheduledLesson.getRoomId();
         if(roomId != null) {
-            Set<ScheduledLesson> lessonSet = lessonsByRoom.get(roomId);
-            if(lessonSet != null) lessonSet.remove(scheduledLesson);
+            roomOccupancy.remove(roomId, scheduledLesson);
         }
 
-        for(Integer teacherId : scheduledLesson.getTeacherIds()) {
-            Set<ScheduledLesson> lessonSet = lessonsByTeacher.get(teacherId);
-            if(lessonSet != null) lessonSet.remove(scheduledLesson);
+        for(int teacherId : scheduledLesson.getTeacherIdArray()) {
+            teacherOccupancy.remove(teacherId, scheduledLesson);
         }
     }
 
     @Override
     public void saveBest() {
-        bestUnassignedVariableCollection = new ArrayList<>(unassignedVariableCollection);
-        bestUnassignedVariableCollection.forEach(DefaultISGVariable::saveBest);
-
-        bestAssignedVariableCollection = new ArrayList<>(variableCollection);
-        bestAssignedVariableCollection.forEach(DefaultISGVariable::saveBest);
+        if(bestValueIndexes == null || bestValueIndexes.length != valueIndexes.length) {
+            bestValueIndexes = new int[valueIndexes.length];
+        }
+        System.arraycopy(valueIndexes, 0, bestValueIndexes, 0, valueIndexes.length);
+        bestUnassignedCount = unassignedVariableCollection.size();
 
         bestValue = getTotalValue();
     }
 
     @Override
     public void restoreBest() {
-        unassignedVariableCollection.clear();
-        unassignedVariableCollection.addAll(bestUnassignedVariableCollection);
-        unassignedVariableCollection.forEach(DefaultISGVariable::restoreBest);
+        List<DefaultISGVariable> variables = new ArrayList<>(variableCollection);
+        variables.addAll(unassignedVariableCollection);
 
         variableCollection.clear();
-        variableCollection.addAll(bestAssignedVariableCollection);
-        variableCollection.forEach(DefaultISGVariable::restoreBest);
+        unassignedVariableCollection.clear();
+        assignedVariableMap.clear();
+        roomOccupancy.clear();
+        teacherOccupancy.clear();
+
+        // Every variable is given the value with the index saved
+        for(DefaultISGVariable variable : variables) {
+            int classId = variable.variable().getIntId();
+            int index = classId < bestValueIndexes.length ? bestValueIndexes[classId] : UNASSIGNED;
+            valueIndexes[classId] = index;
+
+            if(index == UNASSIGNED) {
+                variable.setAssignment(null);
+                unassignedVariableCollection.add(variable);
+            } else if(index == NOT_IN_DOMAIN) {
+                throw new IllegalStateException("restoreBest: The best value of the variable " + variable + " is not one of its values!");
+            } else {
+                variable.setAssignment(variable.getValues().get(index));
+                variableCollection.add(variable);
+                assignedVariableMap.put(classId, variable);
+                addToMemory(variable.getAssignment().value());
+            }
+        }
 
-        lessonsByRoom.clear();
-        lessonsByTeacher.clear();
-        for(DefaultISGVariable variable : variableCollection) {
-            addToMemory(variable.getAssignment().value());
+        // Most of the assignments may have changed, so the timetable is created again
+        solution = null;
+    }
+
+    @Override
+    public void applyMove(DefaultISGVariable var, DefaultISGValue value) {
+        if(!movedVariables.isEmpty()) {
+            throw new IllegalStateException("applyMove: There is already a pending move of the variable " + movedVariables.get(0));
+        }
+
+        addToMove(var, value, "applyMove");
+    }
+
+    @Override
+    public void extendMove(DefaultISGVariable var, DefaultISGValue value) {
+        if(movedVariables.isEmpty()) {
+            throw new IllegalStateException("extendMove: There is no pending move to be extended");
         }
+        if(movedVariables.contains(var)) {
+            throw new IllegalStateException("extendMove: The variable " + var + " was already moved");
+        }
+
+        addToMove(var, value, "extendMove");
+    }
 
-        updateSolution = true;
+    private void addToMove(DefaultISGVariable var, DefaultISGValue value, String method) {
+        if(value.variable() != var) {
+            throw new IllegalStateException(method + ": The value doesn't belong to the variable " + var);
+        }
+
+        DefaultISGValue previousValue = var.getAssignment();
+        if(previousValue == null) {
+            throw new IllegalStateException(method + ": Only assigned variables can be moved!");
+        }
+
+        movedVariables.add(var);
+        movedVariablesPreviousValues.add(previousValue);
+
+        replaceAssignment(var, value);
+    }
+
+    /**
+     * Checks if the pending move keeps the solution feasible: the rooms and teachers of the moved variables aren't used
+     * by other lessons at the same time and no required constraint is violated. The constraints of the timetable are
+     * evaluated from the changes of the moved lessons.
+     * @return True if the solution with the pending move is feasible, false otherwise
+     */
+    public boolean isMoveFeasible() {
+        for(int i = 0; i < movedVariables.size(); i++) {
+            if(!areResourcesFree(movedVariables.get(i).getAssignment())) {
+                return false;
+            }
+        }
+
+        return solution().isValid();
+    }
+
+    @Override
+    public void commitMove() {
+        // Reinsert the variables so the iteration order of the assigned variables is
+        // the same as the one obtained by unassigning and assigning the variables.
+        // Assigning the value a variable already has doesn't unassign it, so it keeps its place
+        for(int i = 0; i < movedVariables.size(); i++) {
+            DefaultISGVariable variable = movedVariables.get(i);
+            if(variable.getAssignment().equals(movedVariablesPreviousValues.get(i))) continue;
+
+            variableCollection.remove(variable);
+            variableCollection.add(variable);
+        }
+
+        clearMove();
+    }
+
+    @Override
+    public void revertMove() {
+        // The variables are restored in the reverse order they were moved
+        for(int i = movedVariables.size() - 1; i >= 0; i--) {
+            replaceAssignment(movedVariables.get(i), movedVariablesPreviousValues.get(i));
+        }
+
+        clearMove();
+    }
+
+    private void clearMove() {
+        movedVariables.clear();
+        movedVariablesPreviousValues.clear();
+    }
+
+    /**
+     * Changes the value of an assigned variable, updating the memory of room and teacher conflicts and the timetable.
+     * Only the penalties related to the lesson of the variable are recomputed.
+     * @param var Assigned variable
+     * @param value New value of the variable
+     */
+    private void replaceAssignment(DefaultISGVariable var, DefaultISGValue value) {
+        removeFromMemory(var.getAssignment().value());
+        var.setAssignment(value);
+        setValueIndex(var, value);
+        addToMemory(value.value());
+
+        if(solution != null) {
+            solution.addScheduledLesson(value.value());
+        }
     }
 
     @Override
@@ -312,11 +549,11 @@ public class DefaultISGSolution implements ISGSolution<InMemoryRepository, Defau
         return Objects.equals(variableCollection, that.variableCollection) &&
                 Objects.equals(unassignedVariableCollection, that.unassignedVariableCollection) &&
                 Objects.equals(bestValue, that.bestValue) &&
-                Objects.equals(bestUnassignedVariableCollection, that.bestUnassignedVariableCollection);
+                Arrays.equals(bestValueIndexes, that.bestValueIndexes);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(variableCollection, unassignedVariableCollection, bestAssignedVariableCollection, bestUnassignedVariableCollection, bestValue);
+        return Objects.hash(variableCollection, unassignedVariableCollection, Arrays.hashCode(bestValueIndexes), bestValue);
     }
 }
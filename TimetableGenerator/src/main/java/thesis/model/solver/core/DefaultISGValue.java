@@ -7,15 +7,22 @@ import java.util.Objects;
 public class DefaultISGValue implements ISGValue<DefaultISGValue, DefaultISGVariable> {
     private final ScheduledLesson scheduledLesson;
     private final DefaultISGVariable variable;
+    private final int index;                    // Index of the value in the values of the variable (-1 if unknown)
 
     public DefaultISGValue(DefaultISGVariable variable, ScheduledLesson scheduledLesson) {
+        this(variable, scheduledLesson, -1);
+    }
+
+    public DefaultISGValue(DefaultISGVariable variable, ScheduledLesson scheduledLesson, int index) {
         this.variable = variable;
         this.scheduledLesson = scheduledLesson;
+        this.index = index;
     }
 
     public DefaultISGValue(DefaultISGVariable newVar, DefaultISGValue other) {
         this.scheduledLesson = other.scheduledLesson;
         this.variable = newVar;
+        this.index = other.index;
     }
 
     @Override
@@ -28,6 +35,14 @@ public class DefaultISGValue implements ISGValue<DefaultISGValue, DefaultISGVari
         return variable;
     }
 
+    /**
+     * Obtains the index of the value in the list of values of its variable
+     * @return The index or -1 if the value wasn't obtained from the list of values
+     */
+    public int getIndex() {
+        return index;
+    }
+
     @Override
     public int getRemovals() {
         return variable.getRemovals(this);
@@ -1,19 +1,21 @@
 package thesis.model.solver.core;
 
+import it.unimi.dsi.fastutil.ints.IntSet;
 import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.Time;
 
 import java.util.*;
 
 public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, DefaultISGValue, DefaultISGSolution> {
-    private Map<DefaultISGValue, Integer> removalCount;       // Counts the number of times a certain value has been unassigned
+    private int[] removalCount;                               // Value index : number of times the value has been unassigned
     private final ClassUnit classUnit;                        // Assigned ClassUnit. Value will be linked to said class
     private DefaultISGValue iAssignment;                      // Assigned value
-    private DefaultISGValue iBestAssignment;                  // Best assignment value
     private DefaultISGSolution solution;                      // Solution of which the variable belongs to
+    private ScheduledClassValueList values;                   // Values of the variable (created on demand)
 
     public DefaultISGVariable(ClassUnit classUnit) {
         this.classUnit = classUnit;
-        this.removalCount = new HashMap<>();
+        this.removalCount = new int[0]; // Created with the size of the values on the first removal
     }
 
     public DefaultISGVariable(DefaultISGSolution newSol, DefaultISGVariable other) {
@@ -23,12 +25,8 @@ public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, Defau
             this.iAssignment = new DefaultISGValue(this, other.iAssignment);
         }
 
-        if(other.iBestAssignment != null) {
-            this.iBestAssignment = new DefaultISGValue(this, other.iBestAssignment);
-        }
-
         if(other.removalCount != null) {
-            this.removalCount = new HashMap<>(other.removalCount);
+            this.removalCount = other.removalCount.clone();
         } else {
             this.removalCount = null;
         }
@@ -59,20 +57,58 @@ public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, Defau
     @Override
     public int getRemovals(DefaultISGValue value) {
         if(removalCount == null) {
-            throw new IllegalStateException("Cant get removals as the removal count map is null (incorrect initialization of class)");
+            throw new IllegalStateException("Cant get removals as the removal count array is null (incorrect initialization of class)");
         }
-        return removalCount.getOrDefault(value, 0);
+        int index = indexOf(value);
+        return index >= 0 && index < removalCount.length ? removalCount[index] : 0;
+    }
+
+    /**
+     * Obtains the index of the value in the values of the variable
+     * @param value Value of the variable
+     * @return The index of the value or -1 if it isn't one of the values of the variable
+     */
+    public int indexOf(DefaultISGValue value) {
+        int index = value.getIndex();
+        if(index >= 0) return index;
+
+        // The value wasn't obtained from the values of the variable, so it is searched in them
+        ISGValueList<DefaultISGValue> values = getValues();
+        for(int i = 0; i < values.size(); i++) {
+            if(values.get(i).equals(value)) return i;
+        }
+        return -1;
     }
 
     @Override
     public ISGValueList<DefaultISGValue> getValues() {
-        return new ScheduledClassValueList(solution.getDataModel(), this);
+        if(values == null) {
+            values = new ScheduledClassValueList(solution.getValueDomainCache(), this);
+        }
+        return values;
+    }
+
+    /**
+     * Finds the value of the variable with the time and room given
+     * @param time Time block of the value
+     * @param roomId Id of the room of the value (null if the class has no rooms)
+     * @return The value or null if the variable has no value with the time and room
+     */
+    public DefaultISGValue findValue(Time time, String roomId) {
+        getValues();
+        return values.find(time, roomId);
     }
 
     @Override
     public void unassign() {
         if(removalCount != null) {
-            removalCount.put(iAssignment, getRemovals(iAssignment) + 1);
+            int index = indexOf(iAssignment);
+            if(index >= 0) {
+                if(removalCount.length == 0) {
+                    removalCount = new int[getValues().size()];
+                }
+                removalCount[index]++;
+            }
         }
         solution.convertToUnassigned(this);
         iAssignment = null;
@@ -80,7 +116,7 @@ public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, Defau
 
     @Override
     public void assign(DefaultISGValue value) {
-        if(!value.value().getClassId().equals(classUnit.getClassId())) {
+        if(value.value().getClassIntId() != classUnit.getIntId()) {
             throw new IllegalStateException("The value to be assigned has a class id different from the variable");
         }
         if (iAssignment != null) {
@@ -91,29 +127,24 @@ public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, Defau
         iAssignment = value;
         solution.convertToAssigned(this);
 
-        Set<String> classConflicts = solution.conflictIds(value);
+        IntSet classConflicts = solution.conflictIds(value);
 
         // Unassign all the conflicts
-        for(String classId : classConflicts) {
-            // Usage of a snapshot of the variableList. The original will be modified by
-            // the unassignment and this prevents a ConcurrentModificationException
-            for(DefaultISGVariable var : new ArrayList<>(solution.getAssignedVariables())) {
-                if(Objects.equals(var.classUnit.getClassId(), classId)) {
-                    var.unassign();
-                    break;
-                }
+        for(int classId : classConflicts) {
+            DefaultISGVariable var = solution.getAssignedVariable(classId);
+            if(var != null) {
+                var.unassign();
             }
         }
     }
 
-    @Override
-    public void saveBest() {
-        iBestAssignment = iAssignment;
-    }
-
-    @Override
-    public void restoreBest() {
-        iAssignment = iBestAssignment;
+    /**
+     * Replaces the assigned value without unassigning conflicts or updating the solution.
+     * Only used by the solution to apply and revert moves and to restore the best solution.
+     * @param value New value of the variable
+     */
+    void setAssignment(DefaultISGValue value) {
+        iAssignment = value;
     }
 
     @Override
@@ -129,11 +160,11 @@ public class DefaultISGVariable implements ISGVariable<DefaultISGVariable, Defau
     public boolean equals(Object o) {
         if (!(o instanceof DefaultISGVariable)) return false;
         DefaultISGVariable that = (DefaultISGVariable) o;
-        return Objects.equals(classUnit.getClassId(), that.classUnit.getClassId());
+        return classUnit.getIntId() == that.classUnit.getIntId();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(classUnit.getClassId());
+        return Integer.hashCode(classUnit.getIntId());
     }
 }
@@ -12,9 +12,14 @@ public class DefaultValueSelection implements ValueSelection<DefaultISGValue, De
 
     private final static float iWeightWeightedCoflicts = 1.0F;                   // CBS: CBS weighted conflict weight
 
-    private final Map<DefaultISGValue, Long> tabuList = new HashMap<>();
     private final static int TABU_DURATION = 7;
 
+    // Ring buffer with the values selected in the last iterations. As a value is selected at most once per iteration,
+    // the values that are still tabu always fit in the buffer
+    private final long[] tabuValues = new long[TABU_DURATION];     // Class int id and value index
+    private final long[] tabuUntilIteration = new long[TABU_DURATION];
+    private int tabuPosition = 0;
+
     @Override
     public DefaultISGValue selectValue(DefaultISGSolution solution, DefaultISGVariable selectedVariable) {
         ISGValueList<DefaultISGValue> values = selectedVariable.getValues();
@@ -39,20 +44,24 @@ public class DefaultValueSelection implements ValueSelection<DefaultISGValue, De
                 continue;
             }
 
-            Long tabuUntilIteration = tabuList.get(value);
             // Value is found on the tabu list
-            if(tabuUntilIteration != null && tabuUntilIteration > solution.getIteration()) {
+            if(isTabu(value, solution.getIteration())) {
                 continue;
             }
 
-            Collection<String> conf = solution.conflictIds(value);
-
             int weightedConflicts = value.getRemovals(); // CBS weighted conflicts
+            double otherCriteria = (iWeightWeightedCoflicts * weightedConflicts) + (iWeightValue * value.toInt());
+
+            // Only the conflicts that can still make the value as good as the best are counted. If the value is
+            // already worse than the best without conflicts they aren't counted at all
+            int maxConflicts = maxConflicts(bestWeightedSum, otherCriteria);
+            if(maxConflicts < 0) {
+                continue;
+            }
+            int conflicts = solution.countConflicts(value, maxConflicts);
 
             // Weighted sum of several criteria
-            double weightedSum = (iWeightWeightedCoflicts * weightedConflicts) +
-                        (iWeightCoflicts * conf.size()) +
-                        (iWeightValue * value.toInt());
+            double weightedSum = otherCriteria + (iWeightCoflicts * conflicts);
 
             // Store best values
             if(bestWeightedSum > weightedSum) {
@@ -72,10 +81,37 @@ public class DefaultValueSelection implements ValueSelection<DefaultISGValue, De
 
         // Add the selected value onto the tabu list
         if(numValues > 1) {
-            tabuList.put(selectedValue, solution.getIteration() + TABU_DURATION);
+            tabuValues[tabuPosition] = tabuKey(selectedValue);
+            tabuUntilIteration[tabuPosition] = solution.getIteration() + TABU_DURATION;
+            tabuPosition = (tabuPosition + 1) % TABU_DURATION;
         }
 
         return selectedValue;
     }
+
+    private boolean isTabu(DefaultISGValue value, long iteration) {
+        long key = tabuKey(value);
+        for(int i = 0; i < TABU_DURATION; i++) {
+            if(tabuValues[i] == key && tabuUntilIteration[i] > iteration) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long tabuKey(DefaultISGValue value) {
+        return ((long) value.variable().variable().getIntId() << 32) | (value.getIndex() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obtains the highest number of conflicts with which the weighted sum of a value is still lower or equal to the best
+     * @param bestWeightedSum Best weighted sum found
+     * @param otherCriteria Weighted sum of the value without the conflicts
+     * @return The number of conflicts (negative if the value is already worse than the best)
+     */
+    private int maxConflicts(double bestWeightedSum, double otherCriteria) {
+        double maxConflicts = Math.floor((bestWeightedSum - otherCriteria + DoubleToolkit.EPSILON) / iWeightCoflicts);
+        return maxConflicts >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) maxConflicts;
+    }
 }
 
@@ -11,7 +11,7 @@ public interface ISGSolution<modelRepository extends InMemoryRepository, Val ext
     void addAssignedVariable(Var var);
     Collection<Var> getUnassignedVariables();
     Collection<Var> getAssignedVariables();
-    Collection<Var> getBestUnassignedVariables();
+    int getBestUnassignedCount();
 
     /**
      * Returns a Set of the violated hard restrictions.
@@ -43,4 +43,30 @@ public interface ISGSolution<modelRepository extends InMemoryRepository, Val ext
     // store and restore the best solution
     void saveBest();
     void restoreBest();
+
+    /**
+     * Changes the value of an assigned variable in place, keeping the previous value so the move can be reverted.
+     * Only one move may be pending at a time and it must be either committed or reverted before the next one.
+     * @param var Assigned variable to be moved.
+     * @param value New value of the variable.
+     */
+    void applyMove(Var var, Val value);
+
+    /**
+     * Changes the value of another assigned variable as part of the pending move (for example to swap two variables).
+     * The move is committed or reverted as a whole.
+     * @param var Assigned variable, not yet moved by the pending move.
+     * @param value New value of the variable.
+     */
+    void extendMove(Var var, Val value);
+
+    /**
+     * Accepts the pending move. Does nothing if there is no pending move.
+     */
+    void commitMove();
+
+    /**
+     * Restores the variables of the pending move to their previous values. Does nothing if there is no pending move.
+     */
+    void revertMove();
 }
@@ -5,4 +5,17 @@ import java.util.List;
 public interface ISGValueList<Val extends ISGValue<Val, ?>> extends Iterable<Val> {
     List<Val> values();
     Val random();
+
+    /**
+     * Returns the number of values in the list.
+     * @return The number of values.
+     */
+    int size();
+
+    /**
+     * Returns the value at the position given, without going through the previous values.
+     * @param index Position of the value, between 0 (inclusive) and size (exclusive).
+     * @return The value at the position given.
+     */
+    Val get(int index);
 }
@@ -18,7 +18,4 @@ public interface ISGVariable<Var extends ISGVariable<Var, Val, ?>, Val extends I
 
     void setSolution(Sol solution);
     Sol getSolution();
-
-    void saveBest();
-    void restoreBest();
 }
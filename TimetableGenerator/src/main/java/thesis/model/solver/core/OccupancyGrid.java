@@ -0,0 +1,185 @@
+package thesis.model.solver.core;
+
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
+import thesis.model.domain.components.TimetableConfiguration;
+
+import java.util.*;
+
+/**
+ * Keeps track of the slots occupied by the lessons of each resource (room or teacher).
+ * Every resource has a cell for each day and slot which stores the weeks in which it is occupied (using the same
+ * bitmask as the weeks of {@link Time}) and the lessons that occupy it. Finding the lessons that overlap a time block
+ * only visits the cells of that time block, instead of every lesson of the resource.
+ * @param <K> Type of the id of the resources
+ */
+public class OccupancyGrid<K> {
+    private final int nrDays;
+    private final int slotsPerDay;
+    private final Map<K, ResourceOccupancy> occupancyMap = new HashMap<>(); // ResourceId : Occupancy of the resource
+
+    public OccupancyGrid(TimetableConfiguration timetableConfiguration) {
+        this.nrDays = timetableConfiguration.getNumDays();
+        this.slotsPerDay = timetableConfiguration.getSlotsPerDay();
+    }
+
+    // Deep copy of another grid
+    public OccupancyGrid(OccupancyGrid<K> other) {
+        this.nrDays = other.nrDays;
+        this.slotsPerDay = other.slotsPerDay;
+
+        other.occupancyMap.forEach((resourceId, occupancy) ->
+            this.occupancyMap.put(resourceId, new ResourceOccupancy(occupancy))
+        );
+    }
+
+    public void add(K resourceId, ScheduledLesson scheduledLesson) {
+        ResourceOccupancy occupancy = occupancyMap.computeIfAbsent(resourceId, k -> new ResourceOccupancy(nrDays * slotsPerDay));
+        Time time = scheduledLesson.getScheduledTime();
+
+        int days = time.getDays();
+        while(days != 0) {
+            int day = Integer.numberOfTrailingZeros(days);
+            days &= days - 1;
+            if(day >= nrDays) break;
+
+            int dayStart = day * slotsPerDay;
+            int end = Math.min(time.getEndSlot(), slotsPerDay);
+            for(int slot = time.getStartSlot(); slot < end; slot++) {
+                occupancy.add(dayStart + slot, scheduledLesson);
+            }
+        }
+    }
+
+    public void remove(K resourceId, ScheduledLesson scheduledLesson) {
+        ResourceOccupancy occupancy = occupancyMap.get(resourceId);
+        if(occupancy == null) return;
+        Time time = scheduledLesson.getScheduledTime();
+
+        int days = time.getDays();
+        while(days != 0) {
+            int day = Integer.numberOfTrailingZeros(days);
+            days &= days - 1;
+            if(day >= nrDays) break;
+
+            int dayStart = day * slotsPerDay;
+            int end = Math.min(time.getEndSlot(), slotsPerDay);
+            for(int slot = time.getStartSlot(); slot < end; slot++) {
+                occupancy.remove(dayStart + slot, scheduledLesson);
+            }
+        }
+    }
+
+    /**
+     * Checks if any lesson of the resource, other than the ones of the class given, overlaps the time block.
+     * @param resourceId Id of the resource
+     * @param time Time block to be checked
+     * @param travelTime Number of slots that must separate two lessons of the resource
+     * @param ignoredClassId Id of the class of which the lessons are ignored
+     * @return True if the time block is free, false otherwise
+     */
+    public boolean isFree(K resourceId, Time time, int travelTime, int ignoredClassId) {
+        return visitOverlaps(resourceId, time, travelTime, ignoredClassId, null);
+    }
+
+    /**
+     * Adds the class ids of the lessons of the resource that overlap the time block.
+     * @param resourceId Id of the resource
+     * @param time Time block to be checked
+     * @param travelTime Number of slots that must separate two lessons of the resource
+     * @param ignoredClassId Id of the class of which the lessons are ignored
+     * @param conflicts Collection to which the dense class ids are added
+     */
+    public void collectOverlaps(K resourceId, Time time, int travelTime, int ignoredClassId, IntCollection conflicts) {
+        visitOverlaps(resourceId, time, travelTime, ignoredClassId, conflicts);
+    }
+
+    /**
+     * Goes through the cells of the time block (extended by the travel time) and finds the lessons that occupy them in
+     * the same weeks. If no collection is provided the search stops at the first overlap.
+     * @return True if there were no overlaps, false otherwise
+     */
+    private boolean visitOverlaps(K resourceId, Time time, int travelTime, int ignoredClassId, IntCollection conflicts) {
+        ResourceOccupancy occupancy = occupancyMap.get(resourceId);
+        if(occupancy == null) return true;
+
+        int weeks = time.getWeeks();
+        int start = Math.max(time.getStartSlot() - travelTime, 0);
+        int end = Math.min(time.getEndSlot() + travelTime, slotsPerDay);
+        boolean free = true;
+
+        int days = time.getDays();
+        while(days != 0) {
+            int day = Integer.numberOfTrailingZeros(days);
+            days &= days - 1;
+            if(day >= nrDays) break;
+
+            int dayStart = day * slotsPerDay;
+            for(int slot = start; slot < end; slot++) {
+                int cell = dayStart + slot;
+                if((occupancy.weeks[cell] & weeks) == 0) continue;
+
+                List<ScheduledLesson> cellLessons = occupancy.lessons[cell];
+                for(int l = 0; l < cellLessons.size(); l++) {
+                    ScheduledLesson scheduledLesson = cellLessons.get(l);
+                    int classId = scheduledLesson.getClassIntId();
+                    if((scheduledLesson.getWeeks() & weeks) == 0 || classId == ignoredClassId) continue;
+
+                    if(conflicts == null) return false;
+
+                    conflicts.add(classId);
+                    free = false;
+                }
+            }
+        }
+
+        return free;
+    }
+
+    public void clear() {
+        occupancyMap.clear();
+    }
+
+    private static class ResourceOccupancy {
+        private final int[] weeks;                        // Cell : weeks in which the cell is occupied
+        private final List<ScheduledLesson>[] lessons;    // Cell : lessons that occupy the cell (created on demand)
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ResourceOccupancy(int nrCells) {
+            this.weeks = new int[nrCells];
+            this.lessons = new List[nrCells];
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ResourceOccupancy(ResourceOccupancy other) {
+            this.weeks = other.weeks.clone();
+            this.lessons = new List[other.lessons.length];
+            for(int cell = 0; cell < lessons.length; cell++) {
+                if(other.lessons[cell] != null) {
+                    lessons[cell] = new ArrayList<>(other.lessons[cell]);
+                }
+            }
+        }
+
+        void add(int cell, ScheduledLesson scheduledLesson) {
+            if(lessons[cell] == null) {
+                lessons[cell] = new ArrayList<>(2);
+            }
+            lessons[cell].add(scheduledLesson);
+            weeks[cell] |= scheduledLesson.getWeeks();
+        }
+
+        void remove(int cell, ScheduledLesson scheduledLesson) {
+            List<ScheduledLesson> cellLessons = lessons[cell];
+            if(cellLessons == null || !cellLessons.remove(scheduledLesson)) return;
+
+            // The weeks of the remaining lessons may overlap so the cell is recomputed
+            int cellWeeks = 0;
+            for(ScheduledLesson lesson : cellLessons) {
+                cellWeeks |= lesson.getWeeks();
+            }
+            weeks[cell] = cellWeeks;
+        }
+    }
+}
@@ -1,105 +1,87 @@
 package thesis.model.solver.core;
 
-import thesis.model.domain.InMemoryRepository;
-import thesis.model.domain.components.ClassUnit;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import thesis.model.domain.components.ScheduledLesson;
 import thesis.model.domain.components.Time;
 import thesis.utils.RandomToolkit;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.*;
 
 public class ScheduledClassValueList implements ISGValueList<DefaultISGValue> {
 
-    private final InMemoryRepository dataModel;
     private final DefaultISGVariable selectedVariable;
+    private final List<ScheduledLesson> domain; // Shared between solutions, must not be changed
+    private final DefaultISGValue[] values;     // Values of the variable, created when first accessed
+    private final ValueDomainCache valueDomainCache;
+    private Map<Time, Object2IntMap<String>> domainIndexes; // Time : room id : index (shared, obtained when first needed)
 
-    ClassUnit classUnit;
-    String classId;
-    List<String> roomList;
-    List<Time> times;
-    List<Integer> teachers;
-
-    public ScheduledClassValueList(InMemoryRepository dataModel, DefaultISGVariable selectedVariable) {
+    public ScheduledClassValueList(ValueDomainCache valueDomainCache, DefaultISGVariable selectedVariable) {
         if (selectedVariable == null) {
             throw new IllegalStateException("ScheduledClassValueList: The selected variable shouldn't be null");
         }
-        this.dataModel = dataModel;
         this.selectedVariable = selectedVariable;
-
-        this.classUnit = selectedVariable.variable();
-        this.classId = classUnit.getClassId();
-        this.roomList = new ArrayList<>(classUnit.getRoomIds());
-        if (this.roomList.isEmpty()) {
-            this.roomList.add(null);
-        }
-
-        this.times = new ArrayList<>(classUnit.getTimeSet());
-        this.teachers = new ArrayList<>(classUnit.getTeacherIdList());
+        this.valueDomainCache = valueDomainCache;
+        this.domain = valueDomainCache.getDomain(selectedVariable.variable());
+        this.values = new DefaultISGValue[domain.size()];
     }
 
     @Override
     public DefaultISGValue random() {
-        // Not efficient, creates every value to choose a random one
-        List<DefaultISGValue> all = new ArrayList<>();
-        for (DefaultISGValue v : this) {
-            all.add(v);
+        if (values.length == 0) {
+            return null;
         }
-        return RandomToolkit.random(all);
+        return get(RandomToolkit.random(values.length));
     }
 
     @Override
     public List<DefaultISGValue> values() {
-        // Not efficient, creates every value
-        List<DefaultISGValue> all = new ArrayList<>();
-        for (DefaultISGValue v : this) {
-            all.add(v);
+        for (int i = 0; i < values.length; i++) {
+            get(i);
         }
-        return all;
+        return Collections.unmodifiableList(Arrays.asList(values));
     }
 
     @Override
-    public Iterator<DefaultISGValue> iterator() {
-        return new Iterator<>() {
-            private int roomIndex = 0;
-            private int timeIndex = 0;
-            private DefaultISGValue nextValue = null;
+    public int size() {
+        return values.length;
+    }
 
-            private void computeNext() {
-                nextValue = null;
-                while (roomIndex < roomList.size()) {
-                    String roomId = roomList.get(roomIndex);
-                    Time time = times.get(timeIndex);
+    @Override
+    public DefaultISGValue get(int index) {
+        DefaultISGValue value = values[index];
+        if (value == null) {
+            value = new DefaultISGValue(selectedVariable, domain.get(index), index);
+            values[index] = value;
+        }
+        return value;
+    }
 
-                    ScheduledLesson scheduledLesson = new ScheduledLesson(classId, roomId, time);
-                    scheduledLesson.bindModel(dataModel);
+    /**
+     * Finds the value with the time and room given, without going through the values
+     * @param time Time block of the value
+     * @param roomId Id of the room of the value (null if the class has no rooms)
+     * @return The value or null if the variable has no value with the time and room
+     */
+    public DefaultISGValue find(Time time, String roomId) {
+        if(domainIndexes == null) {
+            domainIndexes = valueDomainCache.getDomainIndexes(selectedVariable.variable());
+        }
 
-                    for(int teacherId : teachers) {
-                        scheduledLesson.addTeacherId(teacherId);
-                    }
+        Object2IntMap<String> roomIndexes = domainIndexes.get(time);
+        if(roomIndexes == null) return null;
 
-                    // Move the indexes
-                    timeIndex++;
-                    if (timeIndex >= times.size()) {
-                        timeIndex = 0;
-                        roomIndex++;
-                    }
+        int index = roomIndexes.getInt(roomId);
+        return index == -1 ? null : get(index);
+    }
 
-                    if (scheduledLesson.isAvailable()) {
-                        nextValue = new DefaultISGValue(selectedVariable, scheduledLesson);
-                        return;
-                    }
-                }
-            }
+    @Override
+    public Iterator<DefaultISGValue> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
 
             @Override
             public boolean hasNext() {
-                if (nextValue == null) {
-                    computeNext();
-                }
-                return nextValue != null;
+                return index < values.length;
             }
 
             @Override
@@ -107,9 +89,7 @@ public class ScheduledClassValueList implements ISGValueList<DefaultISGValue> {
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                DefaultISGValue result = nextValue;
-                nextValue = null;
-                return result;
+                return get(index++);
             }
         };
     }
@@ -0,0 +1,115 @@
+package thesis.model.solver.core;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the feasible values (room, time and teachers) of every class of a repository. The values of a class are computed
+ * the first time they are needed and then shared, read only, by every solution and thread that uses the same version
+ * of the repository. When the repository changes a new cache is created.
+ */
+public class ValueDomainCache {
+    // Repository : cache of its last version. The keys are weak so the caches don't outlive the repositories
+    private static final Map<InMemoryRepository, ValueDomainCache> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final InMemoryRepository dataModel;
+    private final long version;
+    private final Map<Integer, List<ScheduledLesson>> domainMap = new ConcurrentHashMap<>(); // Class int id : feasible lessons
+    private final Map<Integer, Map<Time, Object2IntMap<String>>> domainIndexMap = new ConcurrentHashMap<>(); // Class int id : time : room id : index in the domain
+
+    private ValueDomainCache(InMemoryRepository dataModel) {
+        this.dataModel = dataModel;
+        this.version = dataModel.getVersion();
+    }
+
+    /**
+     * Obtains the cache of the current version of the repository
+     * @param dataModel Repository of which the cache is obtained
+     * @return The cache of the repository. If the repository changed since the last call a new cache is returned
+     */
+    public static ValueDomainCache of(InMemoryRepository dataModel) {
+        synchronized (caches) {
+            ValueDomainCache cache = caches.get(dataModel);
+            if(cache == null || cache.version != dataModel.getVersion()) {
+                cache = new ValueDomainCache(dataModel);
+                caches.put(dataModel, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Obtains the lessons in which the class can be scheduled. The lessons must not be changed as they are shared.
+     * @param classUnit Class of which the lessons are obtained
+     * @return Unmodifiable list of the lessons that are available
+     */
+    public List<ScheduledLesson> getDomain(ClassUnit classUnit) {
+        return domainMap.computeIfAbsent(classUnit.getIntId(), id -> computeDomain(classUnit));
+    }
+
+    /**
+     * Obtains the positions of the lessons of the class in its domain (see {@link #getDomain}) by their time and room.
+     * The maps must not be changed as they are shared.
+     * @param classUnit Class of which the positions are obtained
+     * @return Map of the time : room id (null if the class has no rooms) : position of the lesson, -1 if it isn't available
+     */
+    public Map<Time, Object2IntMap<String>> getDomainIndexes(ClassUnit classUnit) {
+        return domainIndexMap.computeIfAbsent(classUnit.getIntId(), id -> computeDomainIndexes(getDomain(classUnit)));
+    }
+
+    private Map<Time, Object2IntMap<String>> computeDomainIndexes(List<ScheduledLesson> domain) {
+        Map<Time, Object2IntMap<String>> domainIndexes = new HashMap<>();
+        for(int i = 0; i < domain.size(); i++) {
+            ScheduledLesson scheduledLesson = domain.get(i);
+            Object2IntMap<String> roomIndexes = domainIndexes.computeIfAbsent(scheduledLesson.getScheduledTime(), time -> {
+                Object2IntMap<String> indexes = new Object2IntOpenHashMap<>();
+                indexes.defaultReturnValue(-1);
+                return indexes;
+            });
+            roomIndexes.put(scheduledLesson.getRoomId(), i);
+        }
+
+        return Collections.unmodifiableMap(domainIndexes);
+    }
+
+    private List<ScheduledLesson> computeDomain(ClassUnit classUnit) {
+        List<String> roomList = new ArrayList<>(classUnit.getRoomIds());
+        if (roomList.isEmpty()) {
+            roomList.add(null);
+        }
+        List<Time> times = new ArrayList<>(classUnit.getTimeSet());
+        List<Integer> teachers = classUnit.getTeacherIdList();
+
+        List<ScheduledLesson> domain = new ArrayList<>();
+        for(String roomId : roomList) {
+            for(Time time : times) {
+                ScheduledLesson scheduledLesson = new ScheduledLesson(classUnit.getClassId(), roomId, time);
+                scheduledLesson.bindModel(dataModel);
+
+                for(int teacherId : teachers) {
+                    scheduledLesson.addTeacherId(teacherId);
+                }
+
+                if (scheduledLesson.isAvailable()) {
+                    // Fill every lazy cache of the lesson so it is only read after being shared. The domain is published
+                    // through the concurrent map, so the other threads see these fields already filled
+                    scheduledLesson.toInt();
+                    scheduledLesson.getClassIntId();
+                    scheduledLesson.getRoom();
+                    scheduledLesson.getTeachers();
+                    scheduledLesson.getTeacherIdArray();
+                    domain.add(scheduledLesson);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(domain);
+    }
+}
@@ -25,7 +25,7 @@ public class MullerBasedSolutionGenerator implements InitialSolutionGenerator<De
     private DefaultISGSolution solution;
 
     // Signals that the progress may be consulted
-    boolean setupComplete = false;
+    volatile boolean setupComplete = false;
 
     public MullerBasedSolutionGenerator(InMemoryRepository data) {
         // Every class in every subpart must be allocated in the timetable.
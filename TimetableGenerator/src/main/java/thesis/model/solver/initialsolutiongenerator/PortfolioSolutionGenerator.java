@@ -0,0 +1,125 @@
+package thesis.model.solver.initialsolutiongenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.solver.core.DefaultISGSolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs multiple independent Muller based generators in parallel and returns the first valid solution found.
+ * The generators only differ in the random choices made, as each thread has its own random generator, so an unlucky
+ * order of the variables only delays one of them. When a solution is found the other generators are stopped.
+ */
+public class PortfolioSolutionGenerator implements InitialSolutionGenerator<DefaultISGSolution> {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSolutionGenerator.class);
+
+    private final List<InitialSolutionGenerator<DefaultISGSolution>> generators;
+    private final Executor executor;
+    private final AtomicReference<DefaultISGSolution> firstSolution = new AtomicReference<>();
+    private volatile boolean interruptAlgorithm = false;
+
+    public PortfolioSolutionGenerator(InMemoryRepository data, int numGenerators, Executor executor) {
+        this(createGenerators(data, numGenerators), executor);
+    }
+
+    PortfolioSolutionGenerator(List<InitialSolutionGenerator<DefaultISGSolution>> generators, Executor executor) {
+        if(generators.isEmpty()) {
+            throw new IllegalArgumentException("The portfolio needs at least 1 generator");
+        }
+
+        this.generators = List.copyOf(generators);
+        this.executor = executor;
+    }
+
+    private static List<InitialSolutionGenerator<DefaultISGSolution>> createGenerators(InMemoryRepository data, int numGenerators) {
+        List<InitialSolutionGenerator<DefaultISGSolution>> generators = new ArrayList<>(Math.max(numGenerators, 0));
+        for(int i = 0; i < numGenerators; i++) {
+            generators.add(new MullerBasedSolutionGenerator(data));
+        }
+        return generators;
+    }
+
+    @Override
+    public DefaultISGSolution generate() {
+        List<FutureTask<DefaultISGSolution>> tasks = new ArrayList<>(generators.size());
+        for(InitialSolutionGenerator<DefaultISGSolution> generator : generators) {
+            tasks.add(new FutureTask<>(() -> runGenerator(generator)));
+        }
+
+        // The first generator is run by the calling thread
+        for(int i = 1; i < tasks.size(); i++) {
+            executor.execute(tasks.get(i));
+        }
+
+        for(FutureTask<DefaultISGSolution> task : tasks) {
+            // Does nothing if the task was already started by the executor. Otherwise, the generator
+            // was already stopped and returns right away
+            task.run();
+
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stopAlgorithm();
+            } catch (ExecutionException e) {
+                stopGenerators(null);
+                throw new RuntimeException("Error while generating an initial solution: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        if(interruptAlgorithm) {
+            return null;
+        }
+
+        return firstSolution.get();
+    }
+
+    private DefaultISGSolution runGenerator(InitialSolutionGenerator<DefaultISGSolution> generator) {
+        if(interruptAlgorithm || firstSolution.get() != null) {
+            return null;
+        }
+
+        DefaultISGSolution solution = generator.generate();
+
+        // Only the first solution found is kept, the other generators are no longer needed
+        if(solution != null && firstSolution.compareAndSet(null, solution)) {
+            stopGenerators(generator);
+        }
+
+        return solution;
+    }
+
+    /**
+     * Stops every generator except the one given, which already finished and would only report it was cancelled
+     */
+    private void stopGenerators(InitialSolutionGenerator<DefaultISGSolution> winner) {
+        for(InitialSolutionGenerator<DefaultISGSolution> generator : generators) {
+            if(generator == winner) continue;
+            generator.stopAlgorithm();
+        }
+    }
+
+    @Override
+    public double getProgress() {
+        // The progress is the one of the generator that is closest to a solution
+        double progress = 0;
+        for(InitialSolutionGenerator<DefaultISGSolution> generator : generators) {
+            progress = Math.max(progress, generator.getProgress());
+        }
+        return progress;
+    }
+
+    @Override
+    public void stopAlgorithm() {
+        logger.info("Portfolio of initial solution generators cancelled!");
+        interruptAlgorithm = true;
+        stopGenerators(null);
+    }
+}
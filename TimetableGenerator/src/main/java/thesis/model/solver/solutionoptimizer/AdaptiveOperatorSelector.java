@@ -0,0 +1,143 @@
+package thesis.model.solver.solutionoptimizer;
+
+import thesis.utils.RandomToolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the neighborhood operators of the annealing as a multi-armed bandit. The quality of an operator is the
+ * improvement of the cost it obtains per millisecond spent finding and evaluating its neighbors, averaged with
+ * exponential recency weighting so the choice follows the phase of the search. The operators are chosen by probability
+ * matching, every operator keeping a minimum probability so it is tried again if it starts paying off. Until an
+ * operator improves the cost, the operators are chosen with the initial weights given.
+ * The qualities are updated after every move, but the probabilities only change when {@link #updateProbabilities} is
+ * called, once for each batch of moves, so the operators are chosen with the same probabilities during the batch.
+ * The selector isn't thread safe, each thread must use its own.
+ */
+public class AdaptiveOperatorSelector {
+    private static final double ADAPTATION_RATE = 0.1; // Weight of the last reward in the quality of an operator
+    private static final double MIN_PROBABILITY = 0.02;
+    private static final double LEARNED_SHARE = 0.7;   // Part of the probabilities given by the qualities instead of the initial weights
+
+    private final String[] names;
+    private final double[] initialWeights;
+    private final double[] qualities;     // Operator : recency weighted improvement per millisecond
+    private final double[] probabilities; // Operator : probability of being chosen
+
+    // Operator : statistics of the run
+    private final long[] selections;
+    private final long[] improvements;
+    private final long[] totalImprovement;
+    private final long[] totalNanos;
+
+    /**
+     * @param names Names of the operators, used in the statistics
+     * @param initialWeights Weights with which the operators are chosen until there are improvements
+     */
+    public AdaptiveOperatorSelector(String[] names, double[] initialWeights) {
+        if(names.length != initialWeights.length || names.length == 0) {
+            throw new IllegalArgumentException("There must be one initial weight for each operator");
+        }
+        if(names.length * MIN_PROBABILITY > 1) {
+            throw new IllegalArgumentException("There are too many operators for the minimum probability of " + MIN_PROBABILITY);
+        }
+
+        this.names = names.clone();
+        this.initialWeights = initialWeights.clone();
+        this.qualities = new double[names.length];
+        this.probabilities = new double[names.length];
+        this.selections = new long[names.length];
+        this.improvements = new long[names.length];
+        this.totalImprovement = new long[names.length];
+        this.totalNanos = new long[names.length];
+        updateProbabilities();
+    }
+
+    public int getNumOperators() {
+        return names.length;
+    }
+
+    /**
+     * Chooses the operator to be applied
+     * @return The index of the operator
+     */
+    public int select() {
+        int operator = RandomToolkit.randomWeighted(probabilities);
+        selections[operator]++;
+        return operator;
+    }
+
+    /**
+     * Rewards the operator with the improvement of the neighbor it found. The probabilities only take it into account
+     * after {@link #updateProbabilities} is called
+     * @param operator Index of the operator applied
+     * @param improvement Cost of the solution before the move minus the cost of the neighbor (negative if it got worse)
+     * @param nanos Time spent finding and evaluating the neighbor (CPU time of the thread when it is available)
+     */
+    public void update(int operator, int improvement, long nanos) {
+        totalNanos[operator] += nanos;
+        if(improvement > 0) {
+            improvements[operator]++;
+            totalImprovement[operator] += improvement;
+        }
+
+        double reward = Math.max(improvement, 0) * 1_000_000.0 / Math.max(nanos, 1);
+        qualities[operator] += ADAPTATION_RATE * (reward - qualities[operator]);
+    }
+
+    /**
+     * Computes the probabilities of the operators from their current qualities. Should be called after each batch of
+     * moves (the k moves of an iteration or an epoch)
+     */
+    public void updateProbabilities() {
+        double totalQuality = 0;
+        double totalWeight = 0;
+        for(int i = 0; i < names.length; i++) {
+            totalQuality += qualities[i];
+            totalWeight += initialWeights[i];
+        }
+
+        double sharedProbability = 1 - names.length * MIN_PROBABILITY;
+        for(int i = 0; i < names.length; i++) {
+            double share = initialWeights[i] / totalWeight;
+            if(totalQuality > 0) {
+                share += LEARNED_SHARE * (qualities[i] / totalQuality - share);
+            }
+            probabilities[i] = MIN_PROBABILITY + sharedProbability * share;
+        }
+    }
+
+    /**
+     * Probability of the operator being chosen next
+     */
+    public double getProbability(int operator) {
+        return probabilities[operator];
+    }
+
+    /**
+     * Statistics of the operators, which may be merged with the ones of other selectors of the same operators
+     * @param statistics List of the statistics of each operator to which these are added. If it is empty it is filled
+     */
+    public void addStatistics(List<OperatorStatistics> statistics) {
+        if(statistics.isEmpty()) {
+            for(String name : names) {
+                statistics.add(new OperatorStatistics(name));
+            }
+        }
+
+        for(int i = 0; i < names.length; i++) {
+            statistics.get(i).add(selections[i], improvements[i], totalImprovement[i], totalNanos[i]);
+        }
+    }
+
+    /**
+     * Statistics of the operators of this selector
+     * @return A list with the statistics of each operator
+     */
+    public List<OperatorStatistics> getStatistics() {
+        List<OperatorStatistics> statistics = new ArrayList<>(names.length);
+        addStatistics(statistics);
+        return statistics;
+    }
+}
@@ -0,0 +1,68 @@
+package thesis.model.solver.solutionoptimizer;
+
+/**
+ * Results of a neighborhood operator during the optimization (see {@link AdaptiveOperatorSelector})
+ */
+public class OperatorStatistics {
+    private final String name;
+    private long selections;
+    private long improvements;
+    private long totalImprovement;
+    private long totalNanos;
+
+    public OperatorStatistics(String name) {
+        this.name = name;
+    }
+
+    void add(long selections, long improvements, long totalImprovement, long totalNanos) {
+        this.selections += selections;
+        this.improvements += improvements;
+        this.totalImprovement += totalImprovement;
+        this.totalNanos += totalNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Number of times the operator was chosen
+     */
+    public long getSelections() {
+        return selections;
+    }
+
+    /**
+     * Number of neighbors found by the operator with a lower cost than the solution they came from
+     */
+    public long getImprovements() {
+        return improvements;
+    }
+
+    /**
+     * Sum of the cost reduced by the improving neighbors
+     */
+    public long getTotalImprovement() {
+        return totalImprovement;
+    }
+
+    /**
+     * Time spent finding and evaluating the neighbors of the operator
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Cost reduced per millisecond spent on the operator
+     */
+    public double getImprovementRate() {
+        return totalNanos == 0 ? 0 : totalImprovement * 1_000_000.0 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + selections + " selections, " + improvements + " improvements, " + totalImprovement +
+                " cost reduced in " + totalNanos / 1_000_000 + " ms (" + String.format("%.3f", getImprovementRate()) + " per ms)";
+    }
+}
@@ -0,0 +1,232 @@
+package thesis.model.solver.solutionoptimizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import thesis.model.domain.components.Timetable;
+import thesis.model.solver.core.DefaultISGSolution;
+import thesis.utils.RandomToolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs multiple replicas of the simulated annealing, each at a fixed temperature, in parallel.
+ * The temperatures form a geometric ladder between the initial and the minimum temperature. After each epoch
+ * (k moves on every replica) the solutions of adjacent replicas are exchanged using the Metropolis criterion, which
+ * lets good solutions descend to the colder replicas while the hotter replicas keep exploring.
+ * The number of epochs is the same as the number of temperature changes of the simulated annealing with the same parameters,
+ * unless the termination criteria end it sooner. With a time limit the epochs are run until the time is used.
+ * Each temperature has its own selector of the neighborhood operators, as the operators that pay off differ between the
+ * hot and the cold replicas.
+ */
+public class ParallelTempering implements HeuristicAlgorithm<Timetable> {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelTempering.class);
+
+    private final DefaultISGSolution initialSolution;
+    private final Executor executor;
+    private final SimulatedAnnealing annealing; // Used to apply the moves of the replicas (doesn't keep state between moves)
+    private final double[] temperatures;        // Replica : temperature (from the hottest to the coldest)
+    private final int k;
+    private final int maxIter;
+    private final TerminationCriteria terminationCriteria;
+    private volatile TerminationMonitor terminationMonitor;
+    private volatile boolean interruptAlgorithm = false;
+    private volatile List<OperatorStatistics> operatorStatistics = List.of();
+
+    public ParallelTempering(DefaultISGSolution initialSolution, double initialTemperature, double minTemperature, double coolingRate, int k, int numReplicas, Executor executor) {
+        this(initialSolution, initialTemperature, minTemperature, coolingRate, k, numReplicas, executor, TerminationCriteria.NONE);
+    }
+
+    public ParallelTempering(DefaultISGSolution initialSolution, double initialTemperature, double minTemperature, double coolingRate, int k, int numReplicas, Executor executor, TerminationCriteria terminationCriteria) {
+        if(numReplicas < 2) {
+            throw new IllegalArgumentException("Parallel tempering needs at least 2 replicas");
+        }
+
+        this.initialSolution = initialSolution;
+        this.terminationCriteria = terminationCriteria;
+        this.executor = executor;
+        this.annealing = new SimulatedAnnealing(initialSolution, initialTemperature, minTemperature, coolingRate, k);
+        this.k = k;
+        this.maxIter = SimulatedAnnealing.coolingIterations(initialTemperature, minTemperature, coolingRate);
+
+        this.temperatures = new double[numReplicas];
+        for(int r = 0; r < numReplicas; r++) {
+            temperatures[r] = initialTemperature * Math.pow(minTemperature / initialTemperature, (double) r / (numReplicas - 1));
+        }
+    }
+
+    @Override
+    public Timetable execute() {
+        int numReplicas = temperatures.length;
+        DefaultISGSolution[] replicas = new DefaultISGSolution[numReplicas]; // Replica : solution (exchanged between replicas)
+        int[] costs = new int[numReplicas];                                  // Replica : cost of the solution
+        AdaptiveOperatorSelector[] selectors = new AdaptiveOperatorSelector[numReplicas]; // Replica : operator selector (stays with the temperature)
+
+        for(int r = 0; r < numReplicas; r++) {
+            replicas[r] = new DefaultISGSolution(initialSolution);
+
+            // This feature should only be used in the generation of the initial solution
+            replicas[r].deactivateRemovals();
+
+            if(!replicas[r].isSolutionValid()) {
+                throw new IllegalStateException("The initial solution must be valid");
+            }
+
+            costs[r] = annealing.costFunction(replicas[r]);
+            replicas[r].saveBest();
+            selectors[r] = annealing.createOperatorSelector(replicas[r]);
+        }
+
+        TerminationMonitor monitor = new TerminationMonitor(terminationCriteria, maxIter, bestValue(replicas));
+        terminationMonitor = monitor;
+        while(!monitor.isFinished()) {
+            if(interruptAlgorithm) {
+                return null;
+            }
+
+            runEpoch(replicas, costs, selectors, monitor);
+
+            // Alternate between the even and odd pairs so every pair is considered
+            for(int r = monitor.getIter() % 2; r < numReplicas - 1; r += 2) {
+                if(acceptExchange(costs[r], costs[r + 1], temperatures[r], temperatures[r + 1])) {
+                    DefaultISGSolution solution = replicas[r];
+                    replicas[r] = replicas[r + 1];
+                    replicas[r + 1] = solution;
+
+                    int cost = costs[r];
+                    costs[r] = costs[r + 1];
+                    costs[r + 1] = cost;
+                }
+            }
+
+            monitor.endIteration(k * numReplicas, bestValue(replicas));
+        }
+
+        if(interruptAlgorithm) {
+            return null;
+        }
+
+        logger.info("Parallel tempering finished after {} epochs with the best cost {} ({})", monitor.getIter(), bestValue(replicas), terminationCriteria);
+
+        List<OperatorStatistics> statistics = new ArrayList<>();
+        for(AdaptiveOperatorSelector selector : selectors) {
+            selector.addStatistics(statistics);
+        }
+        operatorStatistics = statistics;
+        SimulatedAnnealing.logOperatorStatistics(statistics);
+
+        // The best solution may have been found by any replica
+        DefaultISGSolution bestSolution = replicas[0];
+        for(DefaultISGSolution solution : replicas) {
+            if(solution.getBestValue() < bestSolution.getBestValue()) {
+                bestSolution = solution;
+            }
+        }
+
+        bestSolution.restoreBest();
+
+        if(!bestSolution.isSolutionValid()) {
+            throw new IllegalStateException("The solution is not valid after the optimization");
+        }
+
+        return bestSolution.solution();
+    }
+
+    private int bestValue(DefaultISGSolution[] replicas) {
+        int bestValue = Integer.MAX_VALUE;
+        for(DefaultISGSolution solution : replicas) {
+            bestValue = Math.min(bestValue, solution.getBestValue());
+        }
+        return bestValue;
+    }
+
+    /**
+     * Applies k moves on every replica. The replicas are run by the executor while the calling thread runs the first one.
+     * Replicas that weren't started by the executor when the calling thread is done are run by it, so the epoch
+     * finishes even if every thread of the executor is busy.
+     */
+    private void runEpoch(DefaultISGSolution[] replicas, int[] costs, AdaptiveOperatorSelector[] selectors, TerminationMonitor monitor) {
+        List<FutureTask<Integer>> tasks = new ArrayList<>(replicas.length);
+        for(int r = 0; r < replicas.length; r++) {
+            DefaultISGSolution solution = replicas[r];
+            int cost = costs[r];
+            double temperature = temperatures[r];
+            AdaptiveOperatorSelector selector = selectors[r];
+
+            FutureTask<Integer> task = new FutureTask<>(() -> anneal(solution, cost, temperature, selector, monitor));
+            tasks.add(task);
+            if(r != 0) {
+                executor.execute(task);
+            }
+        }
+
+        for(int r = 0; r < replicas.length; r++) {
+            FutureTask<Integer> task = tasks.get(r);
+
+            // Does nothing if the task was already started by the executor
+            task.run();
+
+            try {
+                costs[r] = task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interruptAlgorithm = true;
+                return;
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error while optimizing a replica: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    // The time limit is also checked between the moves, so the epoch ends as soon as the time is used
+    private int anneal(DefaultISGSolution solution, int currentCost, double temperature, AdaptiveOperatorSelector selector, TerminationMonitor monitor) {
+        for(int i = 0; i < k && !interruptAlgorithm && !monitor.isOutOfTime(); i++) {
+            currentCost = annealing.annealingStep(solution, currentCost, temperature, selector);
+        }
+        selector.updateProbabilities();
+        return currentCost;
+    }
+
+    /**
+     * Metropolis criterion for the exchange of the solutions of two replicas
+     * @return True if the solutions should be exchanged, false otherwise
+     */
+    private boolean acceptExchange(int cost1, int cost2, double temperature1, double temperature2) {
+        double p = exchangeProbability(cost1, cost2, temperature1, temperature2);
+        return p >= 1 || RandomToolkit.random() <= p;
+    }
+
+    /**
+     * Probability of exchanging the solutions of two replicas. It is 1 if the hotter replica has a solution at least
+     * as good as the colder one, so good solutions always descend to the colder replicas
+     */
+    static double exchangeProbability(int cost1, int cost2, double temperature1, double temperature2) {
+        double delta = (1 / temperature1 - 1 / temperature2) * (cost1 - cost2);
+        return delta >= 0 ? 1 : Math.exp(delta);
+    }
+
+    /**
+     * Statistics of the neighborhood operators of the last run of the algorithm, summed over every temperature
+     * @return A list with the statistics of each operator, empty if no run finished
+     */
+    public List<OperatorStatistics> getOperatorStatistics() {
+        return operatorStatistics;
+    }
+
+    @Override
+    public double getProgress() {
+        TerminationMonitor monitor = terminationMonitor;
+        if(monitor == null) return 0;
+
+        return monitor.getProgress();
+    }
+
+    @Override
+    public void stopAlgorithm() {
+        logger.info("Optimizing algorithm cancelled!");
+        interruptAlgorithm = true;
+    }
+}
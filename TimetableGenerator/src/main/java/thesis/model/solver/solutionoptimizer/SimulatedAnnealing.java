@@ -1,9 +1,13 @@
 package thesis.model.solver.solutionoptimizer;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import thesis.model.domain.components.PenaltySum;
 import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
 import thesis.model.domain.components.Timetable;
 import thesis.model.solver.core.DefaultISGSolution;
 import thesis.model.solver.core.DefaultISGValue;
@@ -11,43 +15,136 @@ import thesis.model.solver.core.DefaultISGVariable;
 import thesis.model.solver.core.ISGValueList;
 import thesis.utils.RandomToolkit;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class SimulatedAnnealing implements HeuristicAlgorithm<Timetable> {
     private static final Logger logger = LoggerFactory.getLogger(SimulatedAnnealing.class);
 
-    private static final double RANDOM_MUTATION_PROBABILITY = 0.15;
     private final static int MAX_TRIES = 5;
+    private final static int MAX_CHAIN_LENGTH = 10; // Maximum number of classes moved by a Kempe chain
     private final DefaultISGSolution initialSolution;
     private final double initialTemperature;
     private final double coolingRate;
     private final double minTemperature;
     private final int k;
     private final int maxIter;
-    private AtomicInteger iter;
+    private final TerminationCriteria terminationCriteria;
+    private volatile TerminationMonitor terminationMonitor;
     private volatile boolean interruptAlgorithm = false;
+    private volatile List<OperatorStatistics> operatorStatistics = List.of();
 
     private enum MutationType {
         ROOM, TIME, BOTH
     }
 
-    // List of possible methods for neighbor finding
+    // List of possible methods for neighbor finding and their names. The weights with which each one is chosen until
+    // the selector learns which ones pay off are given by the cost of the initial solution (see initialOperatorWeights)
     private final List<neighborFindingMethod<DefaultISGSolution>> neighborFunctions = List.of(
-            this::moveClass
+            solution -> moveClass(solution, MutationType.TIME),
+            solution -> moveClass(solution, MutationType.ROOM),
+            solution -> moveClass(solution, MutationType.BOTH),
+            this::swapClasses,
+            this::kempeChain
     );
+    private static final String[] NEIGHBOR_FUNCTION_NAMES = {"moveTime", "moveRoom", "moveBoth", "swapClasses", "kempeChain"};
+
+    // Probability of moving both the time and the room of a class, the rest of the single class moves change the time or
+    // the room in proportion to the time and room penalties (as was done before there were other operators)
+    private static final double RANDOM_MUTATION_PROBABILITY = 0.15;
+    // Probability of the swaps and Kempe chains together. They are only needed for the improvements that need several
+    // classes to change at the same time and are more expensive, so the single class moves are tried first
+    private static final double MULTI_CLASS_MOVE_PROBABILITY = 0.2;
+
+    // The operators are rewarded by the CPU time of the thread, so the time other threads (such as the replicas of
+    // ParallelTempering) take from it doesn't count against the operator. The wall-clock time is used if it isn't available
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean THREAD_CPU_TIME = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+
+    // Scratch space of the moves. The algorithm may apply moves on several solutions at the same
+    // time (see ParallelTempering), so each thread has its own
+    private final ThreadLocal<MoveScratch> moveScratch = ThreadLocal.withInitial(MoveScratch::new);
+
+    private static class MoveScratch {
+        private final IntSet conflicts = new IntOpenHashSet();
+        private final IntSet chainClassIds = new IntOpenHashSet();
+        private final List<DefaultISGVariable> chainVariables = new ArrayList<>();
+        private final List<DefaultISGValue> chainValues = new ArrayList<>();
+        // Indexes of the values not yet probed by moveClass. A position only holds an index if it was written in the
+        // current move (its stamp is the current generation), otherwise it holds its own position, so the array
+        // doesn't have to be filled again for every move
+        private int[] candidateIndexes = new int[0];
+        private int[] candidateStamps = new int[0];
+        private int generation = 0;
+
+        private void startCandidates(int size) {
+            if(candidateIndexes.length < size) {
+                candidateIndexes = new int[size];
+                candidateStamps = new int[size];
+            }
+
+            if(++generation == 0) {
+                Arrays.fill(candidateStamps, 0);
+                generation = 1;
+            }
+        }
+
+        private int getCandidate(int position) {
+            return candidateStamps[position] == generation ? candidateIndexes[position] : position;
+        }
+
+        private void setCandidate(int position, int index) {
+            candidateIndexes[position] = index;
+            candidateStamps[position] = generation;
+        }
+    }
 
     public SimulatedAnnealing(DefaultISGSolution initialSolution, double initialTemperature, double minTemperature, double coolingRate, int k) {
+        this(initialSolution, initialTemperature, minTemperature, coolingRate, k, TerminationCriteria.NONE);
+    }
+
+    /**
+     * @param terminationCriteria Criteria that end the optimization before the end of the cooling schedule. With a time
+     *                            limit the temperature goes from the initial to the minimum temperature during the time given
+     */
+    public SimulatedAnnealing(DefaultISGSolution initialSolution, double initialTemperature, double minTemperature, double coolingRate, int k, TerminationCriteria terminationCriteria) {
+        this.terminationCriteria = terminationCriteria;
         this.initialTemperature = initialTemperature;
         this.minTemperature = minTemperature;
         this.coolingRate = coolingRate;
         this.k = k;
-        this.maxIter = (int) Math.floor(-Math.log(minTemperature / initialTemperature) / coolingRate);
+        this.maxIter = coolingIterations(initialTemperature, minTemperature, coolingRate);
         this.initialSolution = initialSolution;
     }
 
+    /**
+     * Number of iterations of the cooling schedule, which are run while the temperature is above the minimum
+     * @return The number of times the temperature is lowered before it reaches the minimum temperature, 0 if the
+     *         initial temperature isn't above it and {@link Integer#MAX_VALUE} if the temperature is never lowered
+     */
+    static int coolingIterations(double initialTemperature, double minTemperature, double coolingRate) {
+        if(initialTemperature <= minTemperature) {
+            return 0;
+        }
+        if(coolingRate <= 0) {
+            return Integer.MAX_VALUE;
+        }
+
+        // The estimate is corrected with the same comparison of the schedule, so rounding can't add or remove an iteration
+        int iterations = (int) Math.ceil(-Math.log(minTemperature / initialTemperature) / coolingRate);
+        while(iterations > 1 && initialTemperature * Math.exp(-coolingRate * (iterations - 1)) <= minTemperature) {
+            iterations--;
+        }
+        while(iterations < Integer.MAX_VALUE && initialTemperature * Math.exp(-coolingRate * iterations) > minTemperature) {
+            iterations++;
+        }
+        return iterations;
+    }
+
     @Override
     public Timetable execute() {
         DefaultISGSolution currentSolution = new DefaultISGSolution(initialSolution);
@@ -60,49 +157,33 @@ public class SimulatedAnnealing implements HeuristicAlgorithm<Timetable> {
         }
 
         int currentCost = costFunction(currentSolution);
-
-        int bestSolutionCost = currentCost;
         currentSolution.saveBest();
 
         double temperature = initialTemperature;
-
-        iter = new AtomicInteger(0);
-        while(temperature > minTemperature) {
-            for(int i=0; i < k; i++) {
+        AdaptiveOperatorSelector selector = createOperatorSelector(currentSolution);
+
+        TerminationMonitor monitor = new TerminationMonitor(terminationCriteria, maxIter, currentCost);
+        terminationMonitor = monitor;
+        while(!monitor.isFinished()) {
+            // The time limit is also checked between the moves, so it isn't exceeded by the rest of the iteration
+            int moves = 0;
+            for(; moves < k && !monitor.isOutOfTime(); moves++) {
                 if(interruptAlgorithm) {
                     return null;
                 }
 
-                DefaultISGSolution neighbor = neighborhoodFunction(currentSolution);
-                int fv = costFunction(neighbor);
-
-                // Minimize the cost
-                if(fv < currentCost) {
-                    // If the cost of the neighbor is lower than the cost of the current solution
-                    // it is accepted immediately
-                    currentSolution = neighbor;
-                    currentCost = fv;
-
-                    // Update the best solution found if the current cost is better than the best
-                    if(currentCost < bestSolutionCost) {
-                        bestSolutionCost = currentCost;
-                        currentSolution.saveBest();
-                    }
-                } else {
-                    // The neighbor is worse than the current solutions
-                    // so its acceptance is based on a probability
-                    double p = probabilityFunction(currentCost, fv, temperature);
-                    if(RandomToolkit.random() <= p) {
-                        currentSolution = neighbor;
-                        currentCost = fv;
-                    }
-                }
+                currentCost = annealingStep(currentSolution, currentCost, temperature, selector);
             }
+            selector.updateProbabilities();
 
-            iter.incrementAndGet();
-            temperature = coolingSchedule(iter.get());
+            monitor.endIteration(moves, currentSolution.getBestValue());
+            temperature = coolingSchedule(monitor);
         }
 
+        logger.info("Simulated annealing finished after {} iterations with the best cost {} ({})", monitor.getIter(), currentSolution.getBestValue(), terminationCriteria);
+        operatorStatistics = selector.getStatistics();
+        logOperatorStatistics(operatorStatistics);
+
         if(currentSolution.wasBestSaved()) {
             currentSolution.restoreBest();
         }
@@ -114,54 +195,140 @@ public class SimulatedAnnealing implements HeuristicAlgorithm<Timetable> {
         return currentSolution.solution();
     }
 
-    private int costFunction(DefaultISGSolution solution) {
+    /**
+     * Applies a move on the solution and accepts it according to the Metropolis criterion at the temperature given.
+     * If the move improves the best cost of the solution, the solution is saved as the best.
+     * @param solution Solution on which the move is applied
+     * @param currentCost Cost of the solution before the move
+     * @param temperature Temperature used to accept worse neighbors
+     * @param selector Selector of the neighborhood operator, which is rewarded with the improvement of the neighbor
+     * @return The cost of the solution after the move was accepted or rejected
+     */
+    int annealingStep(DefaultISGSolution solution, int currentCost, double temperature, AdaptiveOperatorSelector selector) {
+        // The neighbor is obtained by applying a move on the current solution
+        long start = operatorTime();
+        int operator = selector.select();
+        neighborhoodFunction(solution, operator);
+        int fv = costFunction(solution);
+        selector.update(operator, currentCost - fv, operatorTime() - start);
+
+        // Minimize the cost
+        if(fv < currentCost) {
+            // If the cost of the neighbor is lower than the cost of the current solution
+            // it is accepted immediately
+            solution.commitMove();
+
+            // Update the best solution found if the current cost is better than the best
+            if(fv < solution.getBestValue()) {
+                solution.saveBest();
+            }
+            return fv;
+        }
+
+        // The neighbor is worse than the current solutions
+        // so its acceptance is based on a probability
+        double p = probabilityFunction(currentCost, fv, temperature);
+        if(RandomToolkit.random() <= p) {
+            solution.commitMove();
+            return fv;
+        }
+
+        solution.revertMove();
+        return currentCost;
+    }
+
+    private static long operatorTime() {
+        return THREAD_CPU_TIME ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    int costFunction(DefaultISGSolution solution) {
         return solution.getTotalValue();
     }
 
-    private double coolingSchedule(int iter) {
-        return initialTemperature * Math.exp(-coolingRate * iter);
+    private double coolingSchedule(TerminationMonitor monitor) {
+        if(terminationCriteria.hasTimeLimit()) {
+            // Geometric cooling from the initial to the minimum temperature during the time given
+            return initialTemperature * Math.pow(minTemperature / initialTemperature, Math.min(monitor.getScheduleFraction(), 1));
+        }
+
+        return initialTemperature * Math.exp(-coolingRate * monitor.getIter());
     }
 
     private double probabilityFunction(double currentCost, double neighborCost, double temperature) {
         return Math.exp((currentCost - neighborCost) / temperature);
     }
 
-    private DefaultISGSolution neighborhoodFunction(DefaultISGSolution curr) {
-        DefaultISGSolution neighbor = new DefaultISGSolution(curr);
-
+    /**
+     * Creates a selector of the neighborhood operators of the annealing. Each solution annealed must have its own
+     * @param solution Solution that will be annealed, of which the cost gives the initial weights of the operators
+     * @return The selector, with no statistics
+     */
+    AdaptiveOperatorSelector createOperatorSelector(DefaultISGSolution solution) {
         if(neighborFunctions.isEmpty()) {
             throw new IllegalStateException("There aren't any neighbor finding functions!");
         }
 
-        return RandomToolkit.random(neighborFunctions).findNeighbor(neighbor);
-    }
-
-    private MutationType getRandomChangeType(DefaultISGSolution solution) {
-        // Calculate the probability of only changing the time, room or both
         PenaltySum solutionCost = solution.solution().cost();
+        return new AdaptiveOperatorSelector(NEIGHBOR_FUNCTION_NAMES, initialOperatorWeights(solutionCost.getTimePenalty(), solutionCost.getRoomPenalty()));
+    }
 
-        // Only considering time and room to calculate the probabilities correctly
-        int totalValue = solution.getTotalValue() - solutionCost.getCommonPenalty();
-        double changeRoomProb = (double) solutionCost.getRoomPenalty() / totalValue * (1 - RANDOM_MUTATION_PROBABILITY);
+    /**
+     * Weights of the operators (in the order of their names) before the selector learns which ones pay off.
+     * The single class moves change the time or the room with the probabilities of their share of the time and room
+     * penalties, so the part of the solution with the highest penalty is changed more often
+     * @param timePenalty Time penalty of the solution
+     * @param roomPenalty Room penalty of the solution
+     * @return The weights of the operators, which add up to 1
+     */
+    static double[] initialOperatorWeights(int timePenalty, int roomPenalty) {
+        int totalValue = timePenalty + roomPenalty;
+        double changeRoomProb = totalValue > 0 ? (double) roomPenalty / totalValue : 0.5;
+
+        double singleClassMoves = 1 - MULTI_CLASS_MOVE_PROBABILITY;
+        double singleResourceMoves = singleClassMoves * (1 - RANDOM_MUTATION_PROBABILITY);
+        return new double[] {
+                singleResourceMoves * (1 - changeRoomProb),
+                singleResourceMoves * changeRoomProb,
+                singleClassMoves * RANDOM_MUTATION_PROBABILITY,
+                MULTI_CLASS_MOVE_PROBABILITY / 2,
+                MULTI_CLASS_MOVE_PROBABILITY / 2
+        };
+    }
 
-        double random = RandomToolkit.random();
-        if(random <= RANDOM_MUTATION_PROBABILITY) {
-            return MutationType.BOTH;
-        } else if(random <= (RANDOM_MUTATION_PROBABILITY + changeRoomProb)) {
-            return MutationType.ROOM;
-        } else {
-            return MutationType.TIME;
+    static void logOperatorStatistics(List<OperatorStatistics> statistics) {
+        for(OperatorStatistics operatorStatistics : statistics) {
+            logger.info("Neighborhood operator {}", operatorStatistics);
         }
     }
 
+    /**
+     * Statistics of the neighborhood operators of the last run of the algorithm
+     * @return A list with the statistics of each operator, empty if no run finished
+     */
+    public List<OperatorStatistics> getOperatorStatistics() {
+        return operatorStatistics;
+    }
+
+    /**
+     * Applies a move on the solution provided. The move is left pending so that it can be committed or reverted
+     * depending on the acceptance of the neighbor.
+     * @param curr The current solution
+     * @param operator Index of the neighbor finding function applied
+     * @return The current solution with a pending move (if a move was found)
+     */
+    DefaultISGSolution neighborhoodFunction(DefaultISGSolution curr, int operator) {
+        return neighborFunctions.get(operator).findNeighbor(curr);
+    }
+
     /**
      * Move an assigned class to another time block, room or both.
      * The neighbors generated should always be possible and complete timetables (no unassigned variables and no hard penalties violated)
-     * @param solution A copy of the current solution
-     * @return A neighbor of the current solution
+     * @param solution The current solution on which the move is applied
+     * @param mutationType Whether the time, the room or both are changed
+     * @return The solution with the move pending
      */
-    private DefaultISGSolution moveClass(DefaultISGSolution solution) {
-        MutationType mutationType = getRandomChangeType(solution);
+    private DefaultISGSolution moveClass(DefaultISGSolution solution, MutationType mutationType) {
+        MoveScratch scratch = moveScratch.get();
 
         DefaultISGVariable selectedVar;
         DefaultISGValue newValue;
@@ -173,56 +340,236 @@ public class SimulatedAnnealing implements HeuristicAlgorithm<Timetable> {
                 throw new IllegalStateException("The assigned variables list of the solution is empty");
             }
 
+            newValue = randomFeasibleValue(solution, selectedVar, mutationType, scratch);
+
+            n++;
+
+            // If the value is null it indicates there are no possible moves for this variable.
+            // The process is repeated until there is a variable or the number of tries exceeded the MAX_TRIES
+        } while(newValue == null && n < MAX_TRIES);
+
+        // Apply the mutation if the value exists
+        if(newValue != null) {
+            solution.applyMove(selectedVar, newValue);
+        }
+
+        return solution;
+    }
+
+    /**
+     * Obtains a random value of the variable, other than its assignment, that changes what the mutation type allows and
+     * has no conflicts. The values are probed in a random order (a Fisher-Yates shuffle done as the values are needed)
+     * and the first value without conflicts is returned, so each value without conflicts has the same probability of
+     * being chosen while only the values probed are evaluated.
+     * @return The value or null if every value has conflicts
+     */
+    private DefaultISGValue randomFeasibleValue(DefaultISGSolution solution, DefaultISGVariable var, MutationType mutationType, MoveScratch scratch) {
+        DefaultISGValue currentValue = var.getAssignment();
+        ScheduledLesson currentLesson = currentValue.value();
+
+        ISGValueList<DefaultISGValue> values = var.getValues();
+        int size = values.size();
+        scratch.startCandidates(size);
+
+        for(int remaining = size; remaining > 0; remaining--) {
+            // Take a random value not yet probed and replace it with the last one not probed
+            int position = RandomToolkit.random(remaining);
+            DefaultISGValue value = values.get(scratch.getCandidate(position));
+            scratch.setCandidate(position, scratch.getCandidate(remaining - 1));
+
+            if (value.equals(currentValue)) continue;
+
+            ScheduledLesson valueLesson = value.value();
+
+            switch(mutationType) {
+                case TIME:
+                    // Ignore changes in room
+                    if(!Objects.equals(valueLesson.getRoomId(), currentLesson.getRoomId())) continue;
+                    break;
+                case ROOM:
+                    // Ignore changes in time
+                    if(!Objects.equals(valueLesson.getScheduledTime(), currentLesson.getScheduledTime())) continue;
+                    break;
+            }
+
+            // The occupancy of the room and teachers is checked first as it is much cheaper
+            if (solution.areResourcesFree(value) && solution.countConflicts(value, 0) == 0) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Swaps the time, room or both of two classes. A random value of a class of which the room or teachers are in use is
+     * chosen and, if it is blocked by a single class, that class is moved to the time and room left free by the first one. The move is only kept if the solution
+     * stays feasible, so the neighbors are always complete timetables without hard penalties.
+     * @param solution The current solution on which the move is applied
+     * @return The solution with the move pending (if a move was found)
+     */
+    private DefaultISGSolution swapClasses(DefaultISGSolution solution) {
+        IntSet conflicts = moveScratch.get().conflicts;
+
+        for(int n = 0; n < MAX_TRIES; n++) {
+            DefaultISGVariable selectedVar = RandomToolkit.random(solution.getAssignedVariables());
+            if (selectedVar == null) {
+                throw new IllegalStateException("The assigned variables list of the solution is empty");
+            }
+
             DefaultISGValue currentValue = selectedVar.getAssignment();
-            ScheduledLesson currentLesson = currentValue.value();
+            DefaultISGValue value = randomBlockedValue(solution, selectedVar);
+            if(value == null) continue;
 
-            ISGValueList<DefaultISGValue> values = selectedVar.getValues();
+            // Only one class may occupy the place wanted, to be exchanged with the selected class
+            conflicts.clear();
+            solution.collectConflicts(value, conflicts);
+            conflicts.remove(selectedVar.variable().getIntId());
+            if(conflicts.size() != 1) continue;
 
-            // List of values of which there are no conflicts
-            List<DefaultISGValue> noConflictValues = new ArrayList<>();
-            for (DefaultISGValue value : values) {
-                if (value.equals(currentValue)) continue;
+            DefaultISGVariable otherVar = solution.getAssignedVariable(conflicts.iterator().nextInt());
+            if(otherVar == null) continue;
 
-                ScheduledLesson valueLesson = value.value();
+            // The other class takes the time and/or room that the selected class leaves
+            ScheduledLesson currentLesson = currentValue.value();
+            ScheduledLesson valueLesson = value.value();
+            ScheduledLesson otherLesson = otherVar.getAssignment().value();
+            Time otherTime = valueLesson.getScheduledTime().equals(currentLesson.getScheduledTime())
+                    ? otherLesson.getScheduledTime() : currentLesson.getScheduledTime();
+            String otherRoomId = Objects.equals(valueLesson.getRoomId(), currentLesson.getRoomId())
+                    ? otherLesson.getRoomId() : currentLesson.getRoomId();
+
+            DefaultISGValue otherValue = otherVar.findValue(otherTime, otherRoomId);
+            if(otherValue == null || otherValue.equals(otherVar.getAssignment())) continue;
+
+            solution.applyMove(selectedVar, value);
+            solution.extendMove(otherVar, otherValue);
+            if(solution.isMoveFeasible()) {
+                return solution;
+            }
+            solution.revertMove();
+        }
 
-                switch(mutationType) {
-                    case TIME:
-                        // Ignore changes in room
-                        if(!Objects.equals(valueLesson.getRoomId(), currentLesson.getRoomId())) continue;
-                        break;
-                    case ROOM:
-                        // Ignore changes in time
-                        if(!Objects.equals(valueLesson.getScheduledTime(), currentLesson.getScheduledTime())) continue;
-                        break;
-                }
+        return solution;
+    }
 
-                // Check if there are conflicts. If there aren't any, the value is stored in the list
-                if (solution.conflictIds(value).isEmpty()) {
-                    noConflictValues.add(value);
-                }
+    /**
+     * Obtains a random value of the variable of which the room or teachers are used by another class. The values are
+     * checked in order from a random position, as the free values are already reached by {@link #moveClass}
+     * @return The value or null if the room and teachers of every other value are free
+     */
+    private DefaultISGValue randomBlockedValue(DefaultISGSolution solution, DefaultISGVariable var) {
+        ISGValueList<DefaultISGValue> values = var.getValues();
+        int size = values.size();
+        if(size == 0) return null;
+
+        DefaultISGValue currentValue = var.getAssignment();
+        int start = RandomToolkit.random(size);
+        for(int i = 0; i < size; i++) {
+            DefaultISGValue value = values.get((start + i) % size);
+            if(!value.equals(currentValue) && !solution.areResourcesFree(value)) {
+                return value;
             }
+        }
 
-            newValue = RandomToolkit.random(noConflictValues);
+        return null;
+    }
 
-            n++;
+    /**
+     * Moves a class to another time block and, following the conflicts it creates, moves the classes between the two
+     * time blocks (a Kempe chain of the conflict graph of the two time blocks). Each class keeps its room. The chain is
+     * discarded if a class can't be scheduled in the other time block or if the chain is longer than
+     * {@link #MAX_CHAIN_LENGTH}. The move is only kept if the solution stays feasible.
+     * @param solution The current solution on which the move is applied
+     * @return The solution with the move pending (if a move was found)
+     */
+    private DefaultISGSolution kempeChain(DefaultISGSolution solution) {
+        MoveScratch scratch = moveScratch.get();
 
-            // If the value is null it indicates there are no possible moves for this variable.
-            // The process is repeated until there is a variable or the number of tries exceeded the MAX_TRIES
-        } while(newValue == null && n < MAX_TRIES);
+        for(int n = 0; n < MAX_TRIES; n++) {
+            DefaultISGVariable selectedVar = RandomToolkit.random(solution.getAssignedVariables());
+            if (selectedVar == null) {
+                throw new IllegalStateException("The assigned variables list of the solution is empty");
+            }
 
-        // Apply the mutation if the value exists
-        if(newValue != null) {
-            selectedVar.assign(newValue);
+            ScheduledLesson currentLesson = selectedVar.getAssignment().value();
+            DefaultISGValue value = selectedVar.getValues().random();
+            if(value == null || value.value().getScheduledTime().equals(currentLesson.getScheduledTime())) continue;
+
+            if(!buildKempeChain(solution, scratch, selectedVar, currentLesson.getScheduledTime(), value.value().getScheduledTime())) continue;
+
+            solution.applyMove(scratch.chainVariables.get(0), scratch.chainValues.get(0));
+            for(int i = 1; i < scratch.chainVariables.size(); i++) {
+                solution.extendMove(scratch.chainVariables.get(i), scratch.chainValues.get(i));
+            }
+            if(solution.isMoveFeasible()) {
+                return solution;
+            }
+            solution.revertMove();
         }
 
         return solution;
     }
 
+    /**
+     * Fills the chain of the scratch space with the classes that must exchange the two time blocks for the selected class
+     * to move from the first time block to the second
+     * @return True if the chain was built, false if it must be discarded
+     */
+    private boolean buildKempeChain(DefaultISGSolution solution, MoveScratch scratch, DefaultISGVariable selectedVar, Time fromTime, Time toTime) {
+        scratch.chainClassIds.clear();
+        scratch.chainVariables.clear();
+        scratch.chainValues.clear();
+        if(!addToKempeChain(scratch, selectedVar, toTime)) return false;
+
+        for(int i = 0; i < scratch.chainVariables.size(); i++) {
+            scratch.conflicts.clear();
+            solution.collectConflicts(scratch.chainValues.get(i), scratch.conflicts);
+
+            for(IntIterator it = scratch.conflicts.iterator(); it.hasNext(); ) {
+                int classId = it.nextInt();
+                if(scratch.chainClassIds.contains(classId)) continue;
+
+                DefaultISGVariable conflictVar = solution.getAssignedVariable(classId);
+                if(conflictVar == null) continue;
+
+                Time conflictTime = conflictVar.getAssignment().value().getScheduledTime();
+                Time targetTime;
+                if(conflictTime.equals(fromTime)) {
+                    targetTime = toTime;
+                } else if(conflictTime.equals(toTime)) {
+                    targetTime = fromTime;
+                } else {
+                    // Constraints may report every one of their classes as conflicting, the classes in other time
+                    // blocks are left in place and the move is discarded later if they are really in conflict
+                    continue;
+                }
+
+                if(scratch.chainVariables.size() == MAX_CHAIN_LENGTH || !addToKempeChain(scratch, conflictVar, targetTime)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean addToKempeChain(MoveScratch scratch, DefaultISGVariable var, Time targetTime) {
+        DefaultISGValue targetValue = var.findValue(targetTime, var.getAssignment().value().getRoomId());
+        if(targetValue == null) return false;
+
+        scratch.chainClassIds.add(var.variable().getIntId());
+        scratch.chainVariables.add(var);
+        scratch.chainValues.add(targetValue);
+        return true;
+    }
+
     @Override
     public double getProgress() {
-        if(iter == null) return 0;
+        TerminationMonitor monitor = terminationMonitor;
+        if(monitor == null) return 0;
 
-        return Math.min((double) iter.get() / maxIter, 1);
+        return monitor.getProgress();
     }
 
     @Override
@@ -0,0 +1,79 @@
+package thesis.model.solver.solutionoptimizer;
+
+/**
+ * Criteria that end the optimization before the end of the cooling schedule. Each criterion can be disabled and the
+ * optimization ends as soon as one of the enabled criteria is met.
+ * With a time limit the cooling schedule is stretched over the time given instead of following the cooling rate, so the
+ * optimization uses all of the time and ends at the minimum temperature.
+ */
+public class TerminationCriteria {
+    public static final long NO_TIME_LIMIT = 0;
+    public static final int NO_TARGET_PENALTY = -1;
+    public static final long NO_STAGNATION_LIMIT = 0;
+
+    // Only the cooling schedule ends the optimization
+    public static final TerminationCriteria NONE = new TerminationCriteria(NO_TIME_LIMIT, NO_TARGET_PENALTY, NO_STAGNATION_LIMIT);
+
+    private final long timeLimitMillis;
+    private final int targetPenalty;
+    private final long stagnationLimit;
+
+    /**
+     * @param timeLimitMillis Wall-clock time of the optimization in milliseconds (or {@link #NO_TIME_LIMIT})
+     * @param targetPenalty Cost at or below which the optimization ends (or {@link #NO_TARGET_PENALTY})
+     * @param stagnationLimit Number of moves without improving the best cost after which the optimization ends (or {@link #NO_STAGNATION_LIMIT})
+     */
+    public TerminationCriteria(long timeLimitMillis, int targetPenalty, long stagnationLimit) {
+        if(timeLimitMillis < 0) {
+            throw new IllegalArgumentException("The time limit can't be negative");
+        }
+        if(targetPenalty < NO_TARGET_PENALTY) {
+            throw new IllegalArgumentException("The target penalty can't be negative");
+        }
+        if(stagnationLimit < 0) {
+            throw new IllegalArgumentException("The number of moves without improvement can't be negative");
+        }
+
+        this.timeLimitMillis = timeLimitMillis;
+        this.targetPenalty = targetPenalty;
+        this.stagnationLimit = stagnationLimit;
+    }
+
+    /**
+     * Criteria with the same target penalty and stagnation limit but another time limit
+     * @param timeLimitMillis Wall-clock time of the optimization in milliseconds, at least 1
+     */
+    public TerminationCriteria withTimeLimit(long timeLimitMillis) {
+        return new TerminationCriteria(Math.max(timeLimitMillis, 1), targetPenalty, stagnationLimit);
+    }
+
+    public boolean hasTimeLimit() {
+        return timeLimitMillis != NO_TIME_LIMIT;
+    }
+
+    public boolean hasTargetPenalty() {
+        return targetPenalty != NO_TARGET_PENALTY;
+    }
+
+    public boolean hasStagnationLimit() {
+        return stagnationLimit != NO_STAGNATION_LIMIT;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public int getTargetPenalty() {
+        return targetPenalty;
+    }
+
+    public long getStagnationLimit() {
+        return stagnationLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "TerminationCriteria{timeLimitMillis=" + timeLimitMillis + ", targetPenalty=" + targetPenalty +
+                ", stagnationLimit=" + stagnationLimit + "}";
+    }
+}
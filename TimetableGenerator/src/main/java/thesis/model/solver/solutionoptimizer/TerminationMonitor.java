@@ -0,0 +1,98 @@
+package thesis.model.solver.solutionoptimizer;
+
+/**
+ * Checks the termination criteria during a run of an optimization algorithm and measures its progress against them.
+ * The monitor is updated by the thread running the algorithm, the progress may be read by any thread.
+ */
+class TerminationMonitor {
+    private final TerminationCriteria criteria;
+    private final int maxIter;
+    private final int initialCost;
+    private final long startNanos;
+    private final long timeLimitNanos;
+
+    private volatile int iter = 0;
+    private volatile int bestCost;
+    private volatile long movesWithoutImprovement = 0;
+
+    /**
+     * @param criteria Criteria that end the run
+     * @param maxIter Number of iterations of the cooling schedule, used when there is no time limit
+     * @param initialCost Cost of the solution at the start of the run
+     */
+    TerminationMonitor(TerminationCriteria criteria, int maxIter, int initialCost) {
+        this.criteria = criteria;
+        this.maxIter = maxIter;
+        this.initialCost = initialCost;
+        this.bestCost = initialCost;
+        this.startNanos = System.nanoTime();
+        this.timeLimitNanos = criteria.getTimeLimitMillis() * 1_000_000;
+    }
+
+    /**
+     * Registers the end of an iteration of the algorithm
+     * @param moves Number of moves applied during the iteration
+     * @param bestCost Best cost found since the start of the run
+     */
+    void endIteration(int moves, int bestCost) {
+        if(bestCost < this.bestCost) {
+            this.bestCost = bestCost;
+            movesWithoutImprovement = 0;
+        } else {
+            movesWithoutImprovement += moves;
+        }
+        iter++;
+    }
+
+    int getIter() {
+        return iter;
+    }
+
+    /**
+     * Part of the cooling schedule done. With a time limit it is the part of the time used, otherwise the part of the
+     * iterations done
+     */
+    double getScheduleFraction() {
+        if(criteria.hasTimeLimit()) {
+            return (double) (System.nanoTime() - startNanos) / timeLimitNanos;
+        }
+        return maxIter == 0 ? 1 : (double) iter / maxIter;
+    }
+
+    /**
+     * Checks only the time limit, so it can be called between the moves of an iteration
+     * @return True if there is a time limit and it was reached
+     */
+    boolean isOutOfTime() {
+        return criteria.hasTimeLimit() && System.nanoTime() - startNanos >= timeLimitNanos;
+    }
+
+    /**
+     * @return True if the end of the schedule was reached or one of the criteria was met
+     */
+    boolean isFinished() {
+        if(getScheduleFraction() >= 1) return true;
+        if(criteria.hasTargetPenalty() && bestCost <= criteria.getTargetPenalty()) return true;
+        return criteria.hasStagnationLimit() && movesWithoutImprovement >= criteria.getStagnationLimit();
+    }
+
+    /**
+     * Progress of the run against the criterion closest to ending it
+     * @return A value between 0 and 1
+     */
+    double getProgress() {
+        double progress = getScheduleFraction();
+
+        if(criteria.hasTargetPenalty()) {
+            int targetPenalty = criteria.getTargetPenalty();
+            double targetProgress = initialCost <= targetPenalty ? 1 : (double) (initialCost - bestCost) / (initialCost - targetPenalty);
+            progress = Math.max(progress, targetProgress);
+        }
+
+        if(criteria.hasStagnationLimit()) {
+            progress = Math.max(progress, (double) movesWithoutImprovement / criteria.getStagnationLimit());
+        }
+
+        return Math.min(progress, 1);
+    }
+}
@@ -1,7 +1,7 @@
 package thesis.utils;
 
 public class DoubleToolkit {
-    private final static double EPSILON = 1e-9;
+    public final static double EPSILON = 1e-9;
 
     private DoubleToolkit() {}
 
@@ -0,0 +1,128 @@
+package thesis.utils;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.*;
+
+/**
+ * Set that stores its elements in an array and the position of each element in a map, which allows the elements to be
+ * obtained by index. Adding, removing and obtaining an element by index take constant time. Removing an element moves
+ * the last element to its position, so the order of the elements is not kept.
+ * @param <T> Type of the elements
+ */
+public class IndexedSet<T> extends AbstractSet<T> {
+    private Object[] elements;
+    private int size = 0;
+    private final Object2IntMap<T> positions = new Object2IntOpenHashMap<>(); // Element : index in the array
+
+    public IndexedSet() {
+        this.elements = new Object[16];
+        positions.defaultReturnValue(-1);
+    }
+
+    public IndexedSet(Collection<? extends T> other) {
+        this.elements = new Object[Math.max(other.size(), 16)];
+        positions.defaultReturnValue(-1);
+        addAll(other);
+    }
+
+    /**
+     * Obtains the element stored in a certain index
+     * @param index Index between 0 (inclusive) and the size of the set (exclusive)
+     * @return The element in the index
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public boolean add(T element) {
+        if(positions.containsKey(element)) return false;
+
+        if(size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size] = element;
+        positions.put(element, size);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        int index = positions.removeInt(element);
+        if(index < 0) return false;
+
+        removeAt(index);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeAt(int index) {
+        // The last element takes the place of the removed one
+        size--;
+        if(index != size) {
+            T last = (T) elements[size];
+            elements[index] = last;
+            positions.put(last, index);
+        }
+        elements[size] = null;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return positions.containsKey(element);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            private boolean canRemove = false;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if(next >= size) {
+                    throw new NoSuchElementException();
+                }
+                canRemove = true;
+                return get(next++);
+            }
+
+            @Override
+            public void remove() {
+                if(!canRemove) {
+                    throw new IllegalStateException("remove: next was not called before");
+                }
+                canRemove = false;
+
+                // The last element is moved to the removed position, so it must be visited next
+                next--;
+                positions.removeInt(elements[next]);
+                removeAt(next);
+            }
+        };
+    }
+}
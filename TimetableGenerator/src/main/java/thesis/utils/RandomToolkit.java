@@ -2,11 +2,36 @@ package thesis.utils;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class RandomToolkit {
+    // Generator shared by every thread when a seed was set, otherwise each thread uses its ThreadLocalRandom
+    private static volatile Random seededRandom = null;
+
     private RandomToolkit() {}
 
+    /**
+     * Makes every value generated from now on come from a generator with the seed given, so a run can be repeated.
+     * The generator is shared by all threads, so the values are only the same between runs if a single thread uses it
+     * @param seed Seed of the generator
+     */
+    public static void setSeed(long seed) {
+        seededRandom = new Random(seed);
+    }
+
+    /**
+     * Goes back to a generator per thread without a seed
+     */
+    public static void clearSeed() {
+        seededRandom = null;
+    }
+
+    private static Random generator() {
+        Random random = seededRandom;
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
     /**
      * Choose a random value present in the collection provided
      * @param values Collection of values of which a random value must be chosen
@@ -18,9 +43,11 @@ public class RandomToolkit {
             return null;
         }
 
-        int index = ThreadLocalRandom.current().nextInt(values.size());
+        int index = generator().nextInt(values.size());
         if (values instanceof List) {
             return ((List<T>) values).get(index);
+        } else if (values instanceof IndexedSet) {
+            return ((IndexedSet<T>) values).get(index);
         } else {
             int i = 0;
             for (T val : values) {
@@ -31,13 +58,36 @@ public class RandomToolkit {
         }
     }
 
+    /**
+     * Choose a random index with a probability proportional to its weight
+     * @param weights Non negative weights of the indexes, of which at least one must be positive
+     * @return The index chosen
+     */
+    public static int randomWeighted(double[] weights) {
+        double total = 0;
+        for(double weight : weights) {
+            total += weight;
+        }
+
+        double random = generator().nextDouble() * total;
+        int last = 0;
+        for(int i = 0; i < weights.length; i++) {
+            if(weights[i] <= 0) continue;
+
+            random -= weights[i];
+            if(random < 0) return i;
+            last = i;
+        }
+        return last; // Only reached due to rounding errors
+    }
+
     /**
      * Choose a random index from which a value is removed
      * @param valueList List of values of which a random value is removed
      * @param <T> Type of the values provided
      */
     public static <T> void removeRandom(List<T> valueList) {
-        valueList.remove(ThreadLocalRandom.current().nextInt(valueList.size()));
+        valueList.remove(generator().nextInt(valueList.size()));
     }
 
     /**
@@ -45,7 +95,7 @@ public class RandomToolkit {
      * @return The value generated
      */
     public static float random() {
-        return ThreadLocalRandom.current().nextFloat();
+        return generator().nextFloat();
     }
 
     /**
@@ -59,7 +109,7 @@ public class RandomToolkit {
             return maxValue;
         }
 
-        return ThreadLocalRandom.current().nextInt(maxValue-minValue) + minValue;
+        return generator().nextInt(maxValue-minValue) + minValue;
     }
 
     /**
@@ -82,7 +132,7 @@ public class RandomToolkit {
             return maxValue;
         }
 
-        return ThreadLocalRandom.current().nextLong(maxValue-minValue) + minValue;
+        return nextLong(generator(), maxValue-minValue) + minValue;
     }
 
     /**
@@ -93,4 +143,22 @@ public class RandomToolkit {
     public static long random(long maxValue) {
         return random(maxValue, 0);
     }
+
+    // Random.nextLong(bound) is only available from Java 17
+    private static long nextLong(Random random, long bound) {
+        if(random instanceof ThreadLocalRandom) {
+            return ((ThreadLocalRandom) random).nextLong(bound);
+        }
+        if(bound <= Integer.MAX_VALUE) {
+            return random.nextInt((int) bound);
+        }
+
+        long value;
+        long bits;
+        do {
+            bits = random.nextLong() >>> 1;
+            value = bits % bound;
+        } while(bits - value + (bound - 1) < 0);
+        return value;
+    }
 }
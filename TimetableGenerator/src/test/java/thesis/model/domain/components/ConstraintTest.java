@@ -1,9 +1,12 @@
 package thesis.model.domain.components;
 
 import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
 import thesis.model.domain.components.constraints.ConstraintFactory;
 import thesis.model.exceptions.CheckedIllegalArgumentException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ConstraintTest {
@@ -41,4 +44,39 @@ public class ConstraintTest {
         assertTrue(constraint18.getFirstParameter() != null && constraint18.getFirstParameter() == 3 && constraint18.getSecondParameter() != null && constraint18.getSecondParameter() == 10);
         assertTrue(constraint19.getFirstParameter() != null && constraint19.getFirstParameter() == 4 && constraint19.getSecondParameter() != null && constraint19.getSecondParameter() == 5);
     }
+
+    @Test
+    public void testMaxBreaksMergesAgainstLastBlock() throws CheckedIllegalArgumentException {
+        // The day has the blocks [10, 32) and [60, 94), so there is one break.
+        // Merging every lesson against the first block counted [60, 70), [72, 82) and [84, 94) as 3 blocks, which gave 3
+        assertEquals(1, computeBlockPenalty("MaxBreaks(0,5)"));
+    }
+
+    @Test
+    public void testMaxBlockMergesAgainstLastBlock() throws CheckedIllegalArgumentException {
+        // The day has the blocks [10, 32) and [60, 94), only the second is longer than 25 slots.
+        // Merging every lesson against the first block only kept [10, 32), which gave 0
+        assertEquals(1, computeBlockPenalty("MaxBlock(25,5)"));
+    }
+
+    // Lessons of 10 slots on the first day of the only week, separated by breaks of 2 slots except between the second and third
+    private static int computeBlockPenalty(String restriction) throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 1, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Constraint constraint = ConstraintFactory.createConstraint(0, restriction, 1, false, repository.getTimetableConfiguration());
+        Timetable timetable = new Timetable("test");
+        timetable.bindDataModel(repository);
+
+        short[] starts = {10, 22, 60, 72, 84};
+        for(int i = 0; i < starts.length; i++) {
+            ClassUnit classUnit = ClassUnitFastIdFactory.createClassUnit("blockTest" + i);
+            repository.addClassUnit(classUnit);
+            constraint.addClassUnitId(classUnit.getClassId());
+            timetable.addScheduledLesson(new ScheduledLesson(classUnit.getClassId(), "1", TimeFactory.create((short) 1, 1, starts[i], (short) 10)));
+        }
+
+        return constraint.computePenalties(timetable).penalty;
+    }
 }
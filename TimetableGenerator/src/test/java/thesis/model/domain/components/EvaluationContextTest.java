@@ -0,0 +1,42 @@
+package thesis.model.domain.components;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.components.constraints.utils.DaySlotBitmap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationContextTest {
+    @Test
+    public void testBuffersAreReusedAndReset() {
+        EvaluationContext context = new EvaluationContext();
+
+        ConstraintResults results = context.results();
+        results.penalty = 5;
+        results.conflictingClasses = context.conflicts();
+        results.conflictingClasses.add(3);
+        assertSame(results, context.results());
+        assertEquals(0, results.penalty);
+        assertNull(results.conflictingClasses);
+        assertTrue(context.conflicts().isEmpty());
+
+        context.scheduledLessons().add(new ScheduledLesson("1", null, null));
+        assertTrue(context.scheduledLessons().isEmpty());
+
+        // The arrays only grow
+        long[] sortKeys = context.sortKeys(10);
+        assertTrue(sortKeys.length >= 10);
+        assertSame(sortKeys, context.sortKeys(5));
+        assertTrue(context.positions(20).length >= 20);
+
+        int[] dayLoads = context.dayLoads(14);
+        dayLoads[13] = 7;
+        assertSame(dayLoads, context.dayLoads(14));
+        assertEquals(0, dayLoads[13]);
+
+        DaySlotBitmap daySlots = context.daySlots((short) 7, 2, 288);
+        daySlots.addLesson(1, 1, 10, 20);
+        assertSame(daySlots, context.daySlots((short) 7, 2, 288));
+        assertEquals(0, daySlots.getUsedDays(0));
+        assertNotSame(daySlots, context.daySlots((short) 7, 4, 288));
+    }
+}
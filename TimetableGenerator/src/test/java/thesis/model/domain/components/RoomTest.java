@@ -55,8 +55,8 @@ public class RoomTest {
         Room room3 = RoomFastIdFactory.createRoom("3");
         Room room4 = RoomFastIdFactory.createRoom("4");
 
-        ClassUnit class1 = new ClassUnit("1");
-        ClassUnit class2 = new ClassUnit("2");
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
 
         class1.addRoom(room1.getRoomId(), 1);
         class1.addRoom(room2.getRoomId(), 2);
@@ -7,6 +7,9 @@ import thesis.model.domain.components.constraints.ConstraintFactory;
 import thesis.model.exceptions.CheckedIllegalArgumentException;
 import thesis.model.exceptions.InvalidConfigurationException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,10 +24,10 @@ public class TimetableTest {
 
         TimetableConfiguration timetableConfiguration = repository.getTimetableConfiguration();
 
-        ClassUnit class1 = new ClassUnit("1");
-        ClassUnit class2 = new ClassUnit("2");
-        ClassUnit class3 = new ClassUnit("3");
-        ClassUnit class4 = new ClassUnit("4");
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        ClassUnit class3 = ClassUnitFastIdFactory.createClassUnit("3");
+        ClassUnit class4 = ClassUnitFastIdFactory.createClassUnit("4");
 
         repository.addClassUnit(class1);
         repository.addClassUnit(class2);
@@ -124,4 +127,240 @@ public class TimetableTest {
         assertFalse(constraintSet.contains(constraint3));
         assertFalse(constraintSet.contains(constraint4));
     }
+
+    @Test
+    public void testIncrementalCost() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 2, (short) 3);
+
+        TimetableConfiguration timetableConfiguration = repository.getTimetableConfiguration();
+
+        Time time1 = TimeFactory.create((short) 3, 255, (short) 10, (short) 10);
+        Time time2 = TimeFactory.create((short) 1, 255, (short) 15, (short) 10);
+        Time time3 = TimeFactory.create((short) 4, 255, (short) 10, (short) 10);
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        class1.addClassTime(time1.getDays(), time1.getWeeks(), time1.getStartSlot(), time1.getLength(), 1);
+        class1.addClassTime(time3.getDays(), time3.getWeeks(), time3.getStartSlot(), time3.getLength(), 5);
+        class1.addRoom("1", 2);
+        class2.addClassTime(time2.getDays(), time2.getWeeks(), time2.getStartSlot(), time2.getLength(), 3);
+        class2.addRoom("1", 4);
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        Constraint sameAttendees = ConstraintFactory.createConstraint(0, "SameAttendees", 7, false, timetableConfiguration);
+        repository.addConstraint(sameAttendees);
+        class1.addConstraint(sameAttendees);
+        class2.addConstraint(sameAttendees);
+        sameAttendees.addClassUnitId(class1.getClassId());
+        sameAttendees.addClassUnitId(class2.getClassId());
+
+        Timetable timetable = new Timetable("test");
+        timetable.bindDataModel(repository);
+        timetable.addScheduledLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        timetable.addScheduledLesson(new ScheduledLesson(class2.getClassId(), "1", time2));
+
+        // Both lessons overlap on the first day
+        PenaltySum cost = timetable.cost();
+        assertEquals(1 + 3, cost.getTimePenalty());
+        assertEquals((2 + 4) * 2, cost.getRoomPenalty());
+        assertEquals(7 * 3, cost.getCommonPenalty());
+
+        // Replacing the lesson only updates the penalties related to it
+        timetable.addScheduledLesson(new ScheduledLesson(class1.getClassId(), "1", time3));
+        cost = timetable.cost();
+        assertEquals(5 + 3, cost.getTimePenalty());
+        assertEquals(0, cost.getCommonPenalty());
+        assertCostMatchesRecomputation(timetable);
+
+        // Temporary lessons don't change the running totals nor the cached results
+        cost = timetable.cost();
+        timetable.addTemporaryLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        assertEquals(7 * 3, timetable.cost().getCommonPenalty());
+        assertEquals(1 + 3, timetable.cost().getTimePenalty());
+        timetable.removeTemporaryLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        assertSame(cost, timetable.cost());
+        assertEquals(0, timetable.cost().getCommonPenalty());
+
+        timetable.removeScheduledLesson(class2.getIntId());
+        cost = timetable.cost();
+        assertEquals(5, cost.getTimePenalty());
+        assertEquals(2 * 2, cost.getRoomPenalty());
+        assertCostMatchesRecomputation(timetable);
+    }
+
+    @Test
+    public void testTemporaryCostWithRepeatedConstraint() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Time time1 = TimeFactory.create((short) 1, 255, (short) 10, (short) 10);
+        Time time2 = TimeFactory.create((short) 1, 255, (short) 15, (short) 10);
+        Time time3 = TimeFactory.create((short) 2, 255, (short) 10, (short) 10);
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        // The constraint is in the list of the first class twice
+        Constraint sameAttendees = ConstraintFactory.createConstraint(0, "SameAttendees", 7, false, repository.getTimetableConfiguration());
+        repository.addConstraint(sameAttendees);
+        class1.addConstraint(sameAttendees);
+        class1.addConstraint(sameAttendees);
+        class2.addConstraint(sameAttendees);
+        sameAttendees.addClassUnitId(class1.getClassId());
+        sameAttendees.addClassUnitId(class2.getClassId());
+
+        Timetable timetable = new Timetable("test");
+        timetable.bindDataModel(repository);
+        timetable.addScheduledLesson(new ScheduledLesson(class1.getClassId(), "1", time3));
+        timetable.addScheduledLesson(new ScheduledLesson(class2.getClassId(), "1", time2));
+        assertEquals(0, timetable.cost().getCommonPenalty());
+
+        // The overlap is counted once both with the temporary lesson and once it is added
+        timetable.addTemporaryLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        PenaltySum temporaryCost = timetable.cost();
+        timetable.removeTemporaryLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        assertEquals(7, temporaryCost.getCommonPenalty());
+
+        timetable.addScheduledLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        assertEquals(temporaryCost.getTotalPenalty(), timetable.cost().getTotalPenalty());
+        assertCostMatchesRecomputation(timetable);
+    }
+
+    @Test
+    public void testValidityCounter() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Time time1 = TimeFactory.create((short) 1, 255, (short) 10, (short) 10);
+        Time time2 = TimeFactory.create((short) 1, 255, (short) 15, (short) 10);
+        Time time3 = TimeFactory.create((short) 2, 255, (short) 10, (short) 10);
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        Constraint notOverlap = ConstraintFactory.createConstraint(0, "NotOverlap", null, true, repository.getTimetableConfiguration());
+        repository.addConstraint(notOverlap);
+        class1.addConstraint(notOverlap);
+        class2.addConstraint(notOverlap);
+        notOverlap.addClassUnitId(class1.getClassId());
+        notOverlap.addClassUnitId(class2.getClassId());
+
+        Timetable timetable = new Timetable("test");
+        timetable.bindDataModel(repository);
+        timetable.addScheduledLesson(new ScheduledLesson(class1.getClassId(), "1", time1));
+        timetable.addScheduledLesson(new ScheduledLesson(class2.getClassId(), "1", time2));
+        assertFalse(timetable.isValid());
+        assertEquals(timetable.checkValidity(), timetable.isValid());
+
+        // Moving a lesson only recomputes its constraints
+        timetable.addScheduledLesson(new ScheduledLesson(class2.getClassId(), "1", time3));
+        assertTrue(timetable.isValid());
+        assertEquals(timetable.checkValidity(), timetable.isValid());
+
+        // A temporary lesson doesn't change the cached validity
+        timetable.addTemporaryLesson(new ScheduledLesson(class2.getClassId(), "1", time2));
+        assertFalse(timetable.isValid());
+        timetable.removeTemporaryLesson(new ScheduledLesson(class2.getClassId(), "1", time2));
+        assertTrue(timetable.isValid());
+
+        timetable.removeScheduledLesson(class1.getIntId());
+        assertTrue(timetable.isValid());
+        assertEquals(timetable.checkValidity(), timetable.isValid());
+    }
+
+    @Test
+    public void testSingleLessonChanges() throws CheckedIllegalArgumentException {
+        Random random = new Random(7);
+
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 5, 4, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 2);
+        TimetableConfiguration timetableConfiguration = repository.getTimetableConfiguration();
+
+        Room room1 = RoomFastIdFactory.createRoom("singleChangeRoom1");
+        Room room2 = RoomFastIdFactory.createRoom("singleChangeRoom2");
+        room1.addRoomDistance(room2.getRoomId(), 6);
+        room2.addRoomDistance(room1.getRoomId(), 2);
+        repository.addRoom(room1);
+        repository.addRoom(room2);
+        room1.optimizeRoomDistances();
+        room2.optimizeRoomDistances();
+
+        List<ClassUnit> classUnits = new ArrayList<>();
+        for(int c = 0; c < 8; c++) {
+            ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("singleChange" + c);
+            for(int t = 0; t < 5; t++) {
+                cls.addClassTime((short) (1 + random.nextInt(31)), 1 + random.nextInt(15), (short) (6 * random.nextInt(20)), (short) (6 + 6 * random.nextInt(3)), random.nextInt(3));
+            }
+            cls.addRoom(room1.getRoomId(), 0);
+            cls.addRoom(room2.getRoomId(), 1);
+            classUnits.add(cls);
+            repository.addClassUnit(cls);
+        }
+
+        // Pairwise constraints, which are updated from the pairs of the changed lesson
+        String[] types = {"SameAttendees", "NotOverlap", "Precedence", "MinGap(4)", "SameTime"};
+        for(int i = 0; i < types.length; i++) {
+            Constraint constraint = ConstraintFactory.createConstraint(i, types[i], 3, i == 1, timetableConfiguration);
+            for(ClassUnit cls : classUnits) {
+                if(random.nextInt(4) != 0) {
+                    constraint.addClassUnitId(cls.getClassId());
+                    cls.addConstraint(constraint);
+                }
+            }
+            repository.addConstraint(constraint);
+        }
+
+        Timetable timetable = new Timetable("test");
+        timetable.bindDataModel(repository);
+        timetable.cost();
+
+        for(int i = 0; i < 300; i++) {
+            ClassUnit cls = classUnits.get(random.nextInt(classUnits.size()));
+            if(random.nextInt(5) == 0) {
+                timetable.removeScheduledLesson(cls.getIntId());
+            } else {
+                List<Time> times = new ArrayList<>(cls.getClassTimePenalties().keySet());
+                String roomId = random.nextBoolean() ? room1.getRoomId() : room2.getRoomId();
+                ScheduledLesson lesson = new ScheduledLesson(cls.getClassId(), roomId, times.get(random.nextInt(times.size())));
+
+                // The temporary lesson must give the same cost as the lesson added permanently
+                timetable.cost();
+                timetable.addTemporaryLesson(lesson);
+                PenaltySum temporaryCost = timetable.cost();
+                boolean temporaryValid = timetable.isValid();
+                timetable.removeTemporaryLesson(lesson);
+
+                timetable.addScheduledLesson(lesson);
+                PenaltySum cost = timetable.cost();
+                assertEquals(cost.getTotalPenalty(), temporaryCost.getTotalPenalty());
+                assertEquals(cost.getCommonPenalty(), temporaryCost.getCommonPenalty());
+                assertEquals(timetable.isValid(), temporaryValid);
+            }
+
+            assertEquals(timetable.checkValidity(), timetable.isValid());
+            if(i % 10 == 0) {
+                assertCostMatchesRecomputation(timetable);
+            }
+        }
+    }
+
+    private void assertCostMatchesRecomputation(Timetable timetable) {
+        PenaltySum incrementalCost = timetable.cost();
+        timetable.clearCache();
+        PenaltySum recomputedCost = timetable.cost();
+
+        assertEquals(recomputedCost.getRoomPenalty(), incrementalCost.getRoomPenalty());
+        assertEquals(recomputedCost.getTimePenalty(), incrementalCost.getTimePenalty());
+        assertEquals(recomputedCost.getCommonPenalty(), incrementalCost.getCommonPenalty());
+    }
 }
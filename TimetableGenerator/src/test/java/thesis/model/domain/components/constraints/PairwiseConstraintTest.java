@@ -0,0 +1,101 @@
+package thesis.model.domain.components.constraints;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.*;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PairwiseConstraintTest {
+    private static final int NR_CLASSES = 30;
+    private static final String[] ROOMS = {"pairwiseTestRoom1", "pairwiseTestRoom2", "pairwiseTestRoom3"};
+
+    @Test
+    public void testSweepMatchesPairwiseLoop() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 5, 4, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Random random = new Random(42);
+        List<Room> rooms = new ArrayList<>();
+        for(String roomId : ROOMS) {
+            Room room = RoomFastIdFactory.createRoom(roomId);
+            repository.addRoom(room);
+            rooms.add(room);
+        }
+        for(int r1 = 0; r1 < rooms.size(); r1++) {
+            for(int r2 = r1 + 1; r2 < rooms.size(); r2++) {
+                int distance = 1 + random.nextInt(10);
+                rooms.get(r1).addRoomDistance(ROOMS[r2], distance);
+                rooms.get(r2).addRoomDistance(ROOMS[r1], distance);
+            }
+        }
+        for(Room room : rooms) {
+            room.optimizeRoomDistances();
+        }
+
+        List<String> classIds = new ArrayList<>();
+        for(int i = 0; i < NR_CLASSES; i++) {
+            ClassUnit classUnit = ClassUnitFastIdFactory.createClassUnit("pairwiseTestClass" + i);
+            repository.addClassUnit(classUnit);
+            classIds.add(classUnit.getClassId());
+        }
+
+        TimetableConfiguration timetableConfiguration = repository.getTimetableConfiguration();
+        List<PairwiseConstraint> constraints = List.of(
+                new NotOverlapConstraint(0, "NotOverlap", 1, false, timetableConfiguration),
+                new SameAttendeesConstraint(1, "SameAttendees", 1, false, timetableConfiguration),
+                new MinGapConstraint(2, "MinGap", 6, 1, false, timetableConfiguration),
+                new PrecedenceConstraint(3, "Precedence", 1, false, timetableConfiguration));
+        for(PairwiseConstraint constraint : constraints) {
+            classIds.forEach(constraint::addClassUnitId);
+        }
+
+        for(int iteration = 0; iteration < 200; iteration++) {
+            // Lessons in one or two days and in some weeks, so lessons with close slots are often in different days
+            Timetable timetable = new Timetable("test");
+            timetable.bindDataModel(repository);
+            for(String classId : classIds) {
+                short days = (short) ((1 << random.nextInt(5)) | (random.nextBoolean() ? 1 << random.nextInt(5) : 0));
+                int weeks = 1 + random.nextInt(15);
+                short start = (short) random.nextInt(100);
+                short length = (short) (1 + random.nextInt(20));
+                String roomId = ROOMS[random.nextInt(ROOMS.length)];
+                timetable.addScheduledLesson(new ScheduledLesson(classId, roomId, days, weeks, start, length));
+            }
+
+            for(PairwiseConstraint constraint : constraints) {
+                List<ScheduledLesson> lessons = new ArrayList<>();
+                for(String classId : classIds) {
+                    lessons.add(timetable.getScheduledLesson(ClassUnitFastIdFactory.getId(classId)));
+                }
+
+                int violations = 0;
+                IntSet conflicts = new IntOpenHashSet();
+                for(int i = 0; i < lessons.size() - 1; i++) {
+                    for(int j = i + 1; j < lessons.size(); j++) {
+                        if(constraint.isViolated(lessons.get(i), lessons.get(j))) {
+                            violations++;
+                            conflicts.add(lessons.get(i).getClassIntId());
+                            conflicts.add(lessons.get(j).getClassIntId());
+                        }
+                    }
+                }
+
+                ConstraintResults results = constraint.computePenalties(timetable);
+                assertEquals(violations, results.penalty);
+                if(constraint instanceof SameAttendeesConstraint) {
+                    assertEquals(conflicts, results.conflictingClasses);
+                }
+            }
+        }
+    }
+}
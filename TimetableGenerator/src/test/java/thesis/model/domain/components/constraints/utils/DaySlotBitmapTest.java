@@ -0,0 +1,87 @@
+package thesis.model.domain.components.constraints.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaySlotBitmapTest {
+    @Test
+    public void testBlocks() {
+        DaySlotBitmap daySlots = new DaySlotBitmap((short) 7, 2, 288);
+
+        // Monday of the first week: [10, 20) [22, 30) [25, 40) [60, 70) and [280, 288)
+        daySlots.addLesson(1, 1, 10, 20);
+        daySlots.addLesson(1, 1, 22, 30);
+        daySlots.addLesson(1, 1, 25, 40);
+        daySlots.addLesson(1, 1, 60, 70);
+        daySlots.addLesson(1, 3, 280, 288);
+
+        assertEquals(1, daySlots.getUsedDays(0));
+        assertEquals(1, daySlots.getUsedDays(1));
+        assertEquals(4, daySlots.countBlocks(0, 0, 0));
+        assertEquals(3, daySlots.countBlocks(0, 0, 2));
+        assertEquals(2, daySlots.countBlocks(0, 0, 20));
+        assertEquals(1, daySlots.countBlocks(1, 0, 0));
+
+        // Only the block [10, 40) has more than one lesson
+        assertEquals(1, daySlots.countLongBlocks(0, 0, 2, 29));
+        assertEquals(0, daySlots.countLongBlocks(0, 0, 2, 30));
+        assertEquals(0, daySlots.countLongBlocks(1, 0, 2, 0));
+
+        // Two lessons in the same slots form a block of more than one lesson
+        daySlots.addLesson(2, 1, 100, 110);
+        daySlots.addLesson(2, 1, 100, 110);
+        assertEquals(1, daySlots.countLongBlocks(0, 1, 0, 9));
+
+        daySlots.clear();
+        assertEquals(0, daySlots.getUsedDays(0));
+        assertEquals(0, daySlots.countBlocks(0, 0, 0));
+    }
+
+    @Test
+    public void testBlocksMatchMergedLists() {
+        Random random = new Random(42);
+        DaySlotBitmap daySlots = new DaySlotBitmap((short) 1, 1, 288);
+
+        for(int i = 0; i < 500; i++) {
+            daySlots.clear();
+            List<int[]> lessons = new ArrayList<>();
+            int nrLessons = 1 + random.nextInt(8);
+            for(int l = 0; l < nrLessons; l++) {
+                int start = random.nextInt(270);
+                int[] lesson = {start, start + 1 + random.nextInt(18)};
+                lessons.add(lesson);
+                daySlots.addLesson(1, 1, lesson[0], lesson[1]);
+            }
+            lessons.sort((l1, l2) -> l1[0] - l2[0]);
+
+            int maxBreak = random.nextInt(10);
+            int maxLength = random.nextInt(40);
+
+            // Blocks merged one lesson at a time, counting the lessons of each block
+            List<int[]> blocks = new ArrayList<>();
+            for(int[] lesson : lessons) {
+                int[] top = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+                if(top == null || top[1] + maxBreak < lesson[0]) {
+                    blocks.add(new int[]{lesson[0], lesson[1], 1});
+                } else {
+                    top[1] = Math.max(top[1], lesson[1]);
+                    top[2]++;
+                }
+            }
+            int longBlocks = 0;
+            for(int[] block : blocks) {
+                if(block[2] > 1 && block[1] - block[0] > maxLength) {
+                    longBlocks++;
+                }
+            }
+
+            assertEquals(blocks.size(), daySlots.countBlocks(0, 0, maxBreak));
+            assertEquals(longBlocks, daySlots.countLongBlocks(0, 0, maxBreak, maxLength));
+        }
+    }
+}
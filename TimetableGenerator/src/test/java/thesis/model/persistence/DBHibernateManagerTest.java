@@ -0,0 +1,44 @@
+package thesis.model.persistence;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.Room;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.persistence.entities.RoomEntity;
+import thesis.model.persistence.entities.TimeBlockEntity;
+import thesis.model.solver.core.ValueDomainCache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DBHibernateManagerTest {
+    @Test
+    public void testSyncedUnavailabilityUpdatesDomain() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Room room = RoomFastIdFactory.createRoom("syncTestRoom");
+        repository.addRoom(room);
+
+        ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("syncTestClass");
+        cls.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        cls.addClassTime((short) 1, 255, (short) 30, (short) 10, 0);
+        cls.addRoom("syncTestRoom", 0);
+        repository.addClassUnit(cls);
+
+        assertEquals(2, ValueDomainCache.of(repository).getDomain(cls).size());
+
+        // The room becomes unavailable in the second time of the class
+        RoomEntity roomEntity = new RoomEntity("syncTestRoom");
+        roomEntity.addRoomUnavailability(new TimeBlockEntity((short) 30, (short) 10, (short) 1, 255));
+        DBHibernateManager.syncRooms(repository, List.of(roomEntity));
+
+        assertEquals(1, ValueDomainCache.of(repository).getDomain(cls).size());
+    }
+}
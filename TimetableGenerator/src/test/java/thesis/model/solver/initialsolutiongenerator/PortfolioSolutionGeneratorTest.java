@@ -0,0 +1,121 @@
+package thesis.model.solver.initialsolutiongenerator;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.solver.core.DefaultISGSolution;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioSolutionGeneratorTest {
+    @Test
+    public void testFirstSolutionWinsAndOthersAreStopped() {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+
+        // The first generator is run by the calling thread and only ends when it is stopped
+        BlockingGenerator slowGenerator = new BlockingGenerator();
+        FixedGenerator fastGenerator = new FixedGenerator(solution, slowGenerator.started);
+
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            PortfolioSolutionGenerator portfolio = new PortfolioSolutionGenerator(List.of(slowGenerator, fastGenerator), executor);
+
+            assertSame(solution, portfolio.generate());
+            assertTrue(slowGenerator.stopped);
+            // The generator that found the solution already ended, so it isn't cancelled
+            assertFalse(fastGenerator.stopped);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCancelReturnsNull() {
+        BlockingGenerator generator1 = new BlockingGenerator();
+        BlockingGenerator generator2 = new BlockingGenerator();
+
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            PortfolioSolutionGenerator portfolio = new PortfolioSolutionGenerator(List.of(generator1, generator2), executor);
+
+            // The generation is cancelled while the generators are running
+            Thread canceller = new Thread(() -> {
+                try {
+                    generator1.started.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {}
+                portfolio.stopAlgorithm();
+            });
+            canceller.start();
+
+            assertNull(portfolio.generate());
+            assertTrue(generator1.stopped);
+            assertTrue(generator2.stopped);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class BlockingGenerator implements InitialSolutionGenerator<DefaultISGSolution> {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch stop = new CountDownLatch(1);
+        private volatile boolean stopped = false;
+
+        @Override
+        public DefaultISGSolution generate() {
+            started.countDown();
+            try {
+                stop.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {}
+            return null;
+        }
+
+        @Override
+        public double getProgress() {
+            return 0;
+        }
+
+        @Override
+        public void stopAlgorithm() {
+            stopped = true;
+            stop.countDown();
+        }
+    }
+
+    private static class FixedGenerator implements InitialSolutionGenerator<DefaultISGSolution> {
+        private final DefaultISGSolution solution;
+        private final CountDownLatch waitFor;
+        private volatile boolean stopped = false;
+
+        private FixedGenerator(DefaultISGSolution solution, CountDownLatch waitFor) {
+            this.solution = solution;
+            this.waitFor = waitFor;
+        }
+
+        @Override
+        public DefaultISGSolution generate() {
+            // Only finishes once the other generator is running, so it must be stopped
+            try {
+                waitFor.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {}
+            return solution;
+        }
+
+        @Override
+        public double getProgress() {
+            return 1;
+        }
+
+        @Override
+        public void stopAlgorithm() {
+            stopped = true;
+        }
+    }
+}
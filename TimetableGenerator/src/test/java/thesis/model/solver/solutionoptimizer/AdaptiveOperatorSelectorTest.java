@@ -0,0 +1,63 @@
+package thesis.model.solver.solutionoptimizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveOperatorSelectorTest {
+    @Test
+    public void testInitialWeightsAreUsedUntilImprovements() {
+        AdaptiveOperatorSelector selector = new AdaptiveOperatorSelector(new String[]{"a", "b"}, new double[]{3, 1});
+
+        assertTrue(selector.getProbability(0) > selector.getProbability(1));
+        assertEquals(1, selector.getProbability(0) + selector.getProbability(1), 1e-9);
+
+        // Worse neighbors don't change the probabilities
+        selector.update(1, -5, 1000);
+        selector.updateProbabilities();
+        assertTrue(selector.getProbability(0) > selector.getProbability(1));
+    }
+
+    @Test
+    public void testProbabilityShiftsToImprovingOperator() {
+        AdaptiveOperatorSelector selector = new AdaptiveOperatorSelector(new String[]{"a", "b"}, new double[]{3, 1});
+
+        for(int i = 0; i < 50; i++) {
+            selector.update(1, 10, 1000);
+            selector.update(0, 0, 1000);
+        }
+
+        // The probabilities only change once the batch of moves ends
+        assertTrue(selector.getProbability(0) > selector.getProbability(1));
+        selector.updateProbabilities();
+
+        assertTrue(selector.getProbability(1) > selector.getProbability(0));
+        // The operator that doesn't improve is still chosen sometimes
+        assertTrue(selector.getProbability(0) > 0);
+        assertEquals(1, selector.getProbability(0) + selector.getProbability(1), 1e-9);
+    }
+
+    @Test
+    public void testStatisticsAreMerged() {
+        AdaptiveOperatorSelector selector1 = new AdaptiveOperatorSelector(new String[]{"a", "b"}, new double[]{1, 1});
+        AdaptiveOperatorSelector selector2 = new AdaptiveOperatorSelector(new String[]{"a", "b"}, new double[]{1, 1});
+
+        int operator = selector1.select();
+        selector1.update(operator, 4, 2_000_000);
+        selector2.update(operator, 2, 1_000_000);
+        selector2.update(operator, -1, 1_000_000);
+
+        List<OperatorStatistics> statistics = selector1.getStatistics();
+        selector2.addStatistics(statistics);
+
+        OperatorStatistics operatorStatistics = statistics.get(operator);
+        assertEquals(1, operatorStatistics.getSelections());
+        assertEquals(2, operatorStatistics.getImprovements());
+        assertEquals(6, operatorStatistics.getTotalImprovement());
+        assertEquals(4_000_000, operatorStatistics.getTotalNanos());
+        assertEquals(1.5, operatorStatistics.getImprovementRate(), 1e-9);
+        assertEquals(0, statistics.get(1 - operator).getSelections());
+    }
+}
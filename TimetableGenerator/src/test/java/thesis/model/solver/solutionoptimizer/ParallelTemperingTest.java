@@ -0,0 +1,73 @@
+package thesis.model.solver.solutionoptimizer;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.domain.components.Timetable;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.DefaultISGSolution;
+import thesis.model.solver.initialsolutiongenerator.MullerBasedSolutionGenerator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTemperingTest {
+    @Test
+    public void testExchangeProbability() {
+        // The hotter replica has the better solution, which always descends
+        assertEquals(1, ParallelTempering.exchangeProbability(10, 20, 100, 1));
+        assertEquals(1, ParallelTempering.exchangeProbability(20, 20, 100, 1));
+
+        // The hotter replica has the worse solution, the exchange follows the Metropolis criterion
+        double expected = Math.exp((1 / 100.0 - 1 / 1.0) * (20 - 10));
+        assertEquals(expected, ParallelTempering.exchangeProbability(20, 10, 100, 1), 1e-12);
+        assertTrue(ParallelTempering.exchangeProbability(20, 10, 100, 1) < 1);
+
+        // The closer the temperatures the more likely the exchange
+        assertTrue(ParallelTempering.exchangeProbability(20, 10, 2, 1) > ParallelTempering.exchangeProbability(20, 10, 100, 1));
+    }
+
+    @Test
+    public void testBestSolutionIsValid() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("temperingTestRoom1"));
+        repository.addRoom(RoomFastIdFactory.createRoom("temperingTestRoom2"));
+
+        // Every class has a time and a room without penalty, so the optimum has cost 0
+        for(int i = 0; i < 6; i++) {
+            ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("temperingTestClass" + i);
+            for(int t = 0; t < 4; t++) {
+                cls.addClassTime((short) 1, 255, (short) (10 + 20 * t), (short) 10, t == i % 4 ? 0 : 3 + t);
+            }
+            cls.addRoom("temperingTestRoom1", i % 2 == 0 ? 0 : 2);
+            cls.addRoom("temperingTestRoom2", i % 2 == 0 ? 2 : 0);
+            repository.addClassUnit(cls);
+        }
+
+        DefaultISGSolution initialSolution = new MullerBasedSolutionGenerator(repository).generate();
+        assertNotNull(initialSolution);
+        int initialCost = initialSolution.getTotalValue();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelTempering parallelTempering = new ParallelTempering(initialSolution, 10, 0.1, 0.1, 20, 3, executor);
+            Timetable timetable = parallelTempering.execute();
+
+            assertNotNull(timetable);
+            assertTrue(timetable.isValid());
+            assertEquals(6, timetable.getScheduledLessons().size());
+            assertTrue(timetable.cost().getTotalPenalty() <= initialCost);
+            assertEquals(1, parallelTempering.getProgress());
+            assertFalse(parallelTempering.getOperatorStatistics().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
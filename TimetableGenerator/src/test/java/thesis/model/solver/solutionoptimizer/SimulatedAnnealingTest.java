@@ -0,0 +1,146 @@
+package thesis.model.solver.solutionoptimizer;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.Constraint;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.domain.components.Timetable;
+import thesis.model.domain.components.constraints.ConstraintFactory;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.DefaultISGSolution;
+import thesis.model.solver.core.DefaultISGValue;
+import thesis.model.solver.core.DefaultISGVariable;
+import thesis.model.solver.initialsolutiongenerator.MullerBasedSolutionGenerator;
+import thesis.utils.RandomToolkit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatedAnnealingTest {
+    @Test
+    public void testInitialOperatorWeights() {
+        // Equal time and room penalties change the time and the room equally often
+        assertArrayEquals(new double[]{0.34, 0.34, 0.12, 0.1, 0.1}, SimulatedAnnealing.initialOperatorWeights(10, 10), 1e-9);
+        assertArrayEquals(new double[]{0.34, 0.34, 0.12, 0.1, 0.1}, SimulatedAnnealing.initialOperatorWeights(0, 0), 1e-9);
+
+        // The room is changed more often when most of the penalty comes from the rooms
+        double[] weights = SimulatedAnnealing.initialOperatorWeights(1, 3);
+        assertEquals(0.17, weights[0], 1e-9);
+        assertEquals(0.51, weights[1], 1e-9);
+        assertEquals(0.12, weights[2], 1e-9);
+
+        double total = 0;
+        for(double weight : weights) {
+            total += weight;
+        }
+        assertEquals(1, total, 1e-9);
+    }
+
+    @Test
+    public void testCoolingIterationsMatchTheSchedule() {
+        double[][] parameters = {{100, 0.01, 0.001}, {10, 0.1, 0.1}, {1, 0.5, 0.9}, {1000, 1, 0.0003}, {5, 5, 0.1}, {5, 10, 0.1}};
+        for(double[] p : parameters) {
+            // Iterations of the loop that lowers the temperature while it is above the minimum
+            int iterations = 0;
+            for(double temperature = p[0]; temperature > p[1]; temperature = p[0] * Math.exp(-p[2] * iterations)) {
+                iterations++;
+            }
+
+            assertEquals(iterations, SimulatedAnnealing.coolingIterations(p[0], p[1], p[2]));
+        }
+
+        // Less than one iteration of the formula is still one iteration
+        assertEquals(1, SimulatedAnnealing.coolingIterations(1, 0.5, 0.9));
+        assertEquals(0, SimulatedAnnealing.coolingIterations(5, 5, 0.1));
+    }
+
+    @Test
+    public void testMultiClassMovesKeepTheCostUpToDate() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("multiMoveTestRoom1"));
+        repository.addRoom(RoomFastIdFactory.createRoom("multiMoveTestRoom2"));
+
+        // 7 classes for 8 places (4 times in 2 rooms), so most values are blocked by another class
+        ClassUnit[] classes = new ClassUnit[7];
+        for(int i = 0; i < classes.length; i++) {
+            ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("multiMoveTestClass" + i);
+            for(int t = 0; t < 4; t++) {
+                cls.addClassTime((short) 1, 255, (short) (10 + 20 * t), (short) 10, (i + t) % 4);
+            }
+            cls.addRoom("multiMoveTestRoom1", i % 2);
+            cls.addRoom("multiMoveTestRoom2", (i + 1) % 2);
+            repository.addClassUnit(cls);
+            classes[i] = cls;
+        }
+
+        // Required constraints that the moves must keep and a soft one that changes the cost of the moves
+        addConstraint(repository, ConstraintFactory.createConstraint(0, "NotOverlap", null, true, repository.getTimetableConfiguration()), classes[0], classes[1]);
+        addConstraint(repository, ConstraintFactory.createConstraint(1, "SameAttendees", null, true, repository.getTimetableConfiguration()), classes[2], classes[3], classes[4]);
+        addConstraint(repository, ConstraintFactory.createConstraint(2, "DifferentRoom", 3, false, repository.getTimetableConfiguration()), classes[5], classes[6]);
+
+        RandomToolkit.setSeed(11);
+        try {
+            DefaultISGSolution solution = new MullerBasedSolutionGenerator(repository).generate();
+            assertNotNull(solution);
+            SimulatedAnnealing simulatedAnnealing = new SimulatedAnnealing(solution, 10, 0.1, 0.1, 20);
+
+            for(int operator : new int[]{3, 4}) {
+                int committedMoves = 0;
+                for(int step = 0; step < 300; step++) {
+                    Map<Integer, DefaultISGValue> previousValues = assignments(solution);
+                    int previousCost = solution.getTotalValue();
+
+                    simulatedAnnealing.neighborhoodFunction(solution, operator);
+                    boolean moved = !previousValues.equals(assignments(solution));
+
+                    if(RandomToolkit.random() < 0.5) {
+                        solution.revertMove();
+                        assertEquals(previousValues, assignments(solution));
+                        assertEquals(previousCost, solution.getTotalValue());
+                        continue;
+                    }
+
+                    solution.commitMove();
+                    if(moved) committedMoves++;
+
+                    // The cost kept by the moves is the one of a timetable built from scratch
+                    Timetable timetable = new Timetable("test");
+                    timetable.bindDataModel(repository);
+                    for(DefaultISGVariable variable : solution.getAssignedVariables()) {
+                        timetable.addScheduledLesson(variable.getAssignment().value());
+                    }
+                    assertTrue(solution.isSolutionValid());
+                    assertTrue(timetable.checkValidity());
+                    assertEquals(timetable.cost().getTotalPenalty(), solution.getTotalValue());
+                }
+
+                assertTrue(committedMoves > 0);
+            }
+        } finally {
+            RandomToolkit.clearSeed();
+        }
+    }
+
+    private static void addConstraint(InMemoryRepository repository, Constraint constraint, ClassUnit... classes) {
+        repository.addConstraint(constraint);
+        for(ClassUnit cls : classes) {
+            cls.addConstraint(constraint);
+            constraint.addClassUnitId(cls.getClassId());
+        }
+    }
+
+    private static Map<Integer, DefaultISGValue> assignments(DefaultISGSolution solution) {
+        Map<Integer, DefaultISGValue> assignments = new HashMap<>();
+        for(DefaultISGVariable variable : solution.getAssignedVariables()) {
+            assignments.put(variable.variable().getIntId(), variable.getAssignment());
+        }
+        return assignments;
+    }
+}
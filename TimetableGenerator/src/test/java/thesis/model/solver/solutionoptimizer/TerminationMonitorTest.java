@@ -0,0 +1,70 @@
+package thesis.model.solver.solutionoptimizer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminationMonitorTest {
+    @Test
+    public void testCoolingScheduleEndsTheRun() {
+        TerminationMonitor monitor = new TerminationMonitor(TerminationCriteria.NONE, 3, 100);
+
+        for(int i = 0; i < 3; i++) {
+            assertFalse(monitor.isFinished());
+            assertFalse(monitor.isOutOfTime());
+            monitor.endIteration(10, 100);
+        }
+        assertTrue(monitor.isFinished());
+        assertEquals(1, monitor.getProgress());
+
+        // Without iterations in the schedule the run ends before it starts
+        assertTrue(new TerminationMonitor(TerminationCriteria.NONE, 0, 100).isFinished());
+    }
+
+    @Test
+    public void testTimeLimit() throws InterruptedException {
+        TerminationMonitor monitor = new TerminationMonitor(new TerminationCriteria(50, TerminationCriteria.NO_TARGET_PENALTY, TerminationCriteria.NO_STAGNATION_LIMIT), 1, 100);
+
+        // The schedule of iterations is ignored with a time limit
+        monitor.endIteration(10, 100);
+        assertFalse(monitor.isOutOfTime());
+        assertFalse(monitor.isFinished());
+        assertTrue(monitor.getProgress() < 1);
+
+        Thread.sleep(60);
+        assertTrue(monitor.isOutOfTime());
+        assertTrue(monitor.isFinished());
+        assertEquals(1, monitor.getProgress());
+    }
+
+    @Test
+    public void testTargetPenalty() {
+        TerminationMonitor monitor = new TerminationMonitor(new TerminationCriteria(TerminationCriteria.NO_TIME_LIMIT, 20, TerminationCriteria.NO_STAGNATION_LIMIT), 100, 100);
+
+        monitor.endIteration(10, 60);
+        assertFalse(monitor.isFinished());
+        assertEquals(0.5, monitor.getProgress(), 1e-9);
+
+        monitor.endIteration(10, 20);
+        assertTrue(monitor.isFinished());
+        assertEquals(1, monitor.getProgress());
+    }
+
+    @Test
+    public void testStagnationLimit() {
+        TerminationMonitor monitor = new TerminationMonitor(new TerminationCriteria(TerminationCriteria.NO_TIME_LIMIT, TerminationCriteria.NO_TARGET_PENALTY, 30), 100, 100);
+
+        monitor.endIteration(20, 100);
+        assertFalse(monitor.isFinished());
+
+        // An improvement of the best cost restarts the count
+        monitor.endIteration(20, 90);
+        monitor.endIteration(20, 90);
+        assertFalse(monitor.isFinished());
+        assertEquals(20 / 30.0, monitor.getProgress(), 1e-9);
+
+        monitor.endIteration(10, 90);
+        assertTrue(monitor.isFinished());
+        assertFalse(monitor.isOutOfTime());
+    }
+}
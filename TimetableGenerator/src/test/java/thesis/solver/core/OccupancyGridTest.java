@@ -0,0 +1,61 @@
+package thesis.solver.core;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
+import thesis.model.domain.components.TimeFactory;
+import thesis.model.domain.components.TimetableConfiguration;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.OccupancyGrid;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyGridTest {
+    @Test
+    public void testOverlaps() throws CheckedIllegalArgumentException {
+        TimetableConfiguration timetableConfiguration = new TimetableConfiguration((short) 7, 8, (short) 288, (short) 1, (short) 1, (short) 1);
+        OccupancyGrid<String> grid = new OccupancyGrid<>(timetableConfiguration);
+
+        Time time1 = TimeFactory.create("1100000", "11110000", "10", "10");
+        Time time2 = TimeFactory.create("0010000", "11111111", "10", "10");
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        int class3Id = ClassUnitFastIdFactory.createClassUnit("3").getIntId();
+        ScheduledLesson scheduledLesson1 = new ScheduledLesson(class1.getClassId(), "1", time1);
+        ScheduledLesson scheduledLesson2 = new ScheduledLesson(class2.getClassId(), "1", time2);
+        grid.add("1", scheduledLesson1);
+        grid.add("1", scheduledLesson2);
+
+        // Same days and weeks, overlapping slots
+        Time overlapping = TimeFactory.create("0100000", "10000000", "15", "10");
+        IntSet conflicts = new IntOpenHashSet();
+        grid.collectOverlaps("1", overlapping, 0, class3Id, conflicts);
+        assertEquals(IntSet.of(class1.getIntId()), conflicts);
+        assertFalse(grid.isFree("1", overlapping, 0, class3Id));
+        assertTrue(grid.isFree("2", overlapping, 0, class3Id));
+
+        // The lessons of the class being checked are ignored
+        assertTrue(grid.isFree("1", overlapping, 0, class1.getIntId()));
+
+        // Different weeks
+        Time otherWeeks = TimeFactory.create("1110000", "00001111", "10", "10");
+        conflicts.clear();
+        grid.collectOverlaps("1", otherWeeks, 0, class3Id, conflicts);
+        assertEquals(IntSet.of(class2.getIntId()), conflicts);
+
+        // Adjacent lessons only conflict if there is travel time
+        Time adjacent = TimeFactory.create("1000000", "11111111", "20", "5");
+        assertEquals(time1.overlaps(adjacent, 0), !grid.isFree("1", adjacent, 0, class3Id));
+        assertEquals(time1.overlaps(adjacent, 2), !grid.isFree("1", adjacent, 2, class3Id));
+        assertFalse(grid.isFree("1", adjacent, 2, class3Id));
+
+        // Removing a lesson frees its slots
+        grid.remove("1", scheduledLesson1);
+        assertTrue(grid.isFree("1", overlapping, 0, class3Id));
+        assertFalse(grid.isFree("1", otherWeeks, 0, class3Id));
+    }
+}
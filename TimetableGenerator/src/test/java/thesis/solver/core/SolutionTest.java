@@ -0,0 +1,294 @@
+package thesis.solver.core;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
+import thesis.model.domain.components.TimeFactory;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.DefaultISGSolution;
+import thesis.model.solver.core.DefaultISGValue;
+import thesis.model.solver.core.DefaultISGVariable;
+import thesis.model.solver.initialsolutiongenerator.MullerBasedSolutionGenerator;
+import thesis.utils.RandomToolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionTest {
+    @Test
+    public void testApplyAndRevertMove() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("solutionTestRoom1"));
+        repository.addRoom(RoomFastIdFactory.createRoom("solutionTestRoom2"));
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        class1.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        class1.addClassTime((short) 1, 255, (short) 30, (short) 10, 4);
+        class1.addRoom("solutionTestRoom1", 0);
+        class2.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        class2.addRoom("solutionTestRoom2", 0);
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+        DefaultISGVariable variable1 = createAssignedVariable(solution, class1, "solutionTestRoom1", TimeFactory.create((short) 1, 255, (short) 10, (short) 10));
+        createAssignedVariable(solution, class2, "solutionTestRoom2", TimeFactory.create((short) 1, 255, (short) 10, (short) 10));
+
+        DefaultISGValue originalValue = variable1.getAssignment();
+        int originalCost = solution.getTotalValue();
+        assertEquals(0, originalCost);
+
+        ScheduledLesson movedLesson = new ScheduledLesson(class1.getClassId(), "solutionTestRoom1", TimeFactory.create((short) 1, 255, (short) 30, (short) 10));
+        DefaultISGValue movedValue = new DefaultISGValue(variable1, movedLesson);
+
+        // The move is visible while it is pending
+        solution.applyMove(variable1, movedValue);
+        assertEquals(movedValue, variable1.getAssignment());
+        assertEquals(4, solution.getTotalValue());
+        assertThrows(IllegalStateException.class, () -> solution.applyMove(variable1, originalValue));
+
+        // Reverting restores the previous value and cost
+        solution.revertMove();
+        assertEquals(originalValue, variable1.getAssignment());
+        assertEquals(originalCost, solution.getTotalValue());
+        assertEquals(2, solution.getAssignedVariables().size());
+
+        // Committing keeps the new value
+        solution.applyMove(variable1, movedValue);
+        solution.commitMove();
+        assertEquals(movedValue, variable1.getAssignment());
+        assertEquals(4, solution.getTotalValue());
+        assertEquals(2, solution.getAssignedVariables().size());
+        assertTrue(solution.getUnassignedVariables().isEmpty());
+    }
+
+    @Test
+    public void testSwapMove() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("solutionTestRoom1"));
+
+        // Both classes prefer the time of the other one
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        Time time1 = TimeFactory.create((short) 1, 255, (short) 10, (short) 10);
+        Time time2 = TimeFactory.create((short) 1, 255, (short) 30, (short) 10);
+        class1.addClassTime((short) 1, 255, (short) 10, (short) 10, 3);
+        class1.addClassTime((short) 1, 255, (short) 30, (short) 10, 0);
+        class1.addRoom("solutionTestRoom1", 0);
+        class2.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        class2.addClassTime((short) 1, 255, (short) 30, (short) 10, 5);
+        class2.addRoom("solutionTestRoom1", 0);
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+        DefaultISGVariable variable1 = createAssignedVariable(solution, class1, "solutionTestRoom1", time1);
+        DefaultISGVariable variable2 = createAssignedVariable(solution, class2, "solutionTestRoom1", time2);
+        DefaultISGValue originalValue1 = variable1.getAssignment();
+        DefaultISGValue originalValue2 = variable2.getAssignment();
+        assertEquals(8, solution.getTotalValue());
+
+        DefaultISGValue swappedValue1 = variable1.findValue(time2, "solutionTestRoom1");
+        DefaultISGValue swappedValue2 = variable2.findValue(time1, "solutionTestRoom1");
+        assertNotNull(swappedValue1);
+        assertNotNull(swappedValue2);
+        assertNull(variable1.findValue(time1, "solutionTestRoom2"));
+        assertThrows(IllegalStateException.class, () -> solution.extendMove(variable2, swappedValue2));
+
+        // Only moving the first class puts both classes in the same room at the same time
+        solution.applyMove(variable1, swappedValue1);
+        assertFalse(solution.isMoveFeasible());
+        assertThrows(IllegalStateException.class, () -> solution.extendMove(variable1, originalValue1));
+
+        // The swap is feasible and is reverted as a whole
+        solution.extendMove(variable2, swappedValue2);
+        assertTrue(solution.isMoveFeasible());
+        assertEquals(0, solution.getTotalValue());
+        solution.revertMove();
+        assertEquals(originalValue1, variable1.getAssignment());
+        assertEquals(originalValue2, variable2.getAssignment());
+        assertEquals(8, solution.getTotalValue());
+        assertTrue(solution.isSolutionValid());
+
+        solution.applyMove(variable1, swappedValue1);
+        solution.extendMove(variable2, swappedValue2);
+        solution.commitMove();
+        assertEquals(0, solution.getTotalValue());
+        assertEquals(2, solution.getAssignedVariables().size());
+        assertTrue(solution.areResourcesFree(variable1.getAssignment()));
+        assertTrue(solution.areResourcesFree(variable2.getAssignment()));
+    }
+
+    @Test
+    public void testConflictsAreUnassigned() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("solutionTestRoom1"));
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit class2 = ClassUnitFastIdFactory.createClassUnit("2");
+        repository.addClassUnit(class1);
+        repository.addClassUnit(class2);
+
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+        Time time = TimeFactory.create((short) 1, 255, (short) 10, (short) 10);
+        DefaultISGVariable variable1 = createAssignedVariable(solution, class1, "solutionTestRoom1", time);
+        assertSame(variable1, solution.getAssignedVariable(class1.getIntId()));
+
+        // Assigning the same room and time to another class unassigns the first one
+        DefaultISGVariable variable2 = createAssignedVariable(solution, class2, "solutionTestRoom1", time);
+        assertNull(solution.getAssignedVariable(class1.getIntId()));
+        assertSame(variable2, solution.getAssignedVariable(class2.getIntId()));
+        assertNull(variable1.getAssignment());
+        assertTrue(solution.getUnassignedVariables().contains(variable1));
+        assertEquals(1, solution.getAssignedVariables().size());
+    }
+
+    @Test
+    public void testSaveAndRestoreBest() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("solutionTestRoom1"));
+
+        ClassUnit class1 = ClassUnitFastIdFactory.createClassUnit("1");
+        class1.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        class1.addClassTime((short) 1, 255, (short) 30, (short) 10, 4);
+        class1.addRoom("solutionTestRoom1", 0);
+        repository.addClassUnit(class1);
+
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+        DefaultISGVariable variable1 = createAssignedVariable(solution, class1, "solutionTestRoom1", TimeFactory.create((short) 1, 255, (short) 10, (short) 10));
+        DefaultISGValue bestValue = variable1.getAssignment();
+        solution.saveBest();
+        assertEquals(0, solution.getBestValue());
+        assertEquals(0, solution.getBestUnassignedCount());
+
+        // Changes made after saving are discarded by the restore, also in a copy of the solution
+        DefaultISGValue otherValue = null;
+        for(DefaultISGValue value : variable1.getValues()) {
+            if(!value.equals(bestValue)) otherValue = value;
+        }
+        assertNotNull(otherValue);
+        solution.applyMove(variable1, otherValue);
+        solution.commitMove();
+        assertEquals(4, solution.getTotalValue());
+
+        DefaultISGSolution copy = new DefaultISGSolution(solution);
+        copy.restoreBest();
+        assertEquals(bestValue.value(), copy.getAssignedVariable(class1.getIntId()).getAssignment().value());
+        assertEquals(0, copy.getTotalValue());
+
+        solution.restoreBest();
+        assertEquals(bestValue, variable1.getAssignment());
+        assertEquals(0, solution.getTotalValue());
+
+        // Unassigned variables are also restored
+        variable1.unassign();
+        assertEquals(1, solution.getUnassignedVariables().size());
+        solution.restoreBest();
+        assertEquals(bestValue, variable1.getAssignment());
+        assertTrue(solution.getUnassignedVariables().isEmpty());
+    }
+
+    @Test
+    public void testMoveAndUndoMatchesCopies() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("equivalenceTestRoom1"));
+        repository.addRoom(RoomFastIdFactory.createRoom("equivalenceTestRoom2"));
+
+        for(int i = 0; i < 8; i++) {
+            ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("equivalenceTestClass" + i);
+            for(int t = 0; t < 5; t++) {
+                cls.addClassTime((short) 1, 255, (short) (10 + 12 * t), (short) 10, (i + t) % 5);
+            }
+            cls.addRoom("equivalenceTestRoom1", i % 3);
+            cls.addRoom("equivalenceTestRoom2", (i + 1) % 3);
+            repository.addClassUnit(cls);
+        }
+
+        try {
+            RandomToolkit.setSeed(7);
+            DefaultISGSolution initialSolution = new MullerBasedSolutionGenerator(repository).generate();
+            assertNotNull(initialSolution);
+
+            // The same moves drawn from the same seed, applied in place or on a copy of the solution as the annealing did
+            RandomToolkit.setSeed(42);
+            List<Integer> inPlaceCosts = runMoves(new DefaultISGSolution(initialSolution), false);
+            RandomToolkit.setSeed(42);
+            List<Integer> copyCosts = runMoves(new DefaultISGSolution(initialSolution), true);
+
+            assertEquals(copyCosts, inPlaceCosts);
+        } finally {
+            RandomToolkit.clearSeed();
+        }
+    }
+
+    // Applies random moves to feasible values, accepting worse neighbors with a fixed probability.
+    // Returns the cost and the order of the assigned classes after each move
+    private List<Integer> runMoves(DefaultISGSolution solution, boolean copySolution) {
+        List<Integer> costs = new ArrayList<>();
+        int cost = solution.getTotalValue();
+
+        for(int i = 0; i < 300; i++) {
+            DefaultISGVariable variable = RandomToolkit.random(solution.getAssignedVariables());
+            int index = RandomToolkit.random(variable.getValues().size());
+            if(solution.countConflicts(variable.getValues().get(index), 0) > 0) continue;
+
+            DefaultISGSolution neighbor;
+            if(copySolution) {
+                neighbor = new DefaultISGSolution(solution);
+                DefaultISGVariable neighborVariable = neighbor.getAssignedVariable(variable.variable().getIntId());
+                neighborVariable.assign(neighborVariable.getValues().get(index));
+            } else {
+                neighbor = solution;
+                neighbor.applyMove(variable, variable.getValues().get(index));
+            }
+
+            int neighborCost = neighbor.getTotalValue();
+            boolean accepted = neighborCost < cost || RandomToolkit.random() <= 0.3;
+            if(accepted) {
+                cost = neighborCost;
+                if(copySolution) {
+                    solution = neighbor;
+                } else {
+                    solution.commitMove();
+                }
+            } else if(!copySolution) {
+                solution.revertMove();
+            }
+
+            costs.add(cost);
+            for(DefaultISGVariable assigned : solution.getAssignedVariables()) {
+                costs.add(assigned.variable().getIntId());
+            }
+        }
+
+        assertTrue(solution.isSolutionValid());
+        assertEquals(cost, solution.getTotalValue());
+        return costs;
+    }
+
+    private DefaultISGVariable createAssignedVariable(DefaultISGSolution solution, ClassUnit cls, String roomId, Time time) {
+        DefaultISGVariable variable = new DefaultISGVariable(cls);
+        variable.setSolution(solution);
+        solution.addUnassignedVariable(variable);
+        variable.assign(new DefaultISGValue(variable, new ScheduledLesson(cls.getClassId(), roomId, time)));
+        return variable;
+    }
+}
@@ -0,0 +1,62 @@
+package thesis.solver.core;
+
+import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
+import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.Room;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.Time;
+import thesis.model.domain.components.TimeFactory;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.ValueDomainCache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueDomainCacheTest {
+    @Test
+    public void testDomainIsSharedUntilRepositoryChanges() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+
+        Room room = RoomFastIdFactory.createRoom("valueDomainTestRoom1");
+        room.addUnavailability((short) 1, 255, (short) 30, (short) 10);
+        repository.addRoom(room);
+        repository.addRoom(RoomFastIdFactory.createRoom("valueDomainTestRoom2"));
+
+        ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("valueDomainTestClass");
+        cls.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        cls.addClassTime((short) 1, 255, (short) 30, (short) 10, 0);
+        cls.addRoom("valueDomainTestRoom1", 0);
+        cls.addRoom("valueDomainTestRoom2", 0);
+        repository.addClassUnit(cls);
+
+        ValueDomainCache cache = ValueDomainCache.of(repository);
+        List<ScheduledLesson> domain = cache.getDomain(cls);
+
+        // The time in which the first room is unavailable is excluded
+        assertEquals(3, domain.size());
+        assertSame(domain, cache.getDomain(cls));
+        assertSame(cache, ValueDomainCache.of(repository));
+
+        // The lessons can be found by their time and room
+        for(int i = 0; i < domain.size(); i++) {
+            ScheduledLesson scheduledLesson = domain.get(i);
+            assertEquals(i, cache.getDomainIndexes(cls).get(scheduledLesson.getScheduledTime()).getInt(scheduledLesson.getRoomId()));
+        }
+        Time unavailableTime = TimeFactory.create((short) 1, 255, (short) 30, (short) 10);
+        assertEquals(-1, cache.getDomainIndexes(cls).get(unavailableTime).getInt("valueDomainTestRoom1"));
+
+        // Any change to the repository creates a new cache
+        repository.setOptimizationParameters((short) 2, (short) 1, (short) 1);
+        ValueDomainCache newCache = ValueDomainCache.of(repository);
+        assertNotSame(cache, newCache);
+        assertNotSame(domain, newCache.getDomain(cls));
+        assertEquals(domain, newCache.getDomain(cls));
+    }
+}
@@ -2,6 +2,7 @@ package thesis.solver.core;
 
 import org.junit.jupiter.api.Test;
 import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
 import thesis.model.domain.components.ScheduledLesson;
 import thesis.model.domain.components.Time;
 import thesis.model.domain.components.TimeFactory;
@@ -18,7 +19,7 @@ public class ValueTest {
     @Test
     public void testEquals() throws CheckedIllegalArgumentException {
         String classId1 = "1";
-        ClassUnit cls1 = new ClassUnit(classId1);
+        ClassUnit cls1 = ClassUnitFastIdFactory.createClassUnit(classId1);
         String roomId1 = "1";
         String roomId2 = "2";
         Time time1 = TimeFactory.create("1111111", "111111111111", "20", "10");
@@ -1,20 +1,28 @@
 package thesis.solver.core;
 
 import org.junit.jupiter.api.Test;
+import thesis.model.domain.DataRepository;
+import thesis.model.domain.InMemoryRepository;
 import thesis.model.domain.components.ClassUnit;
+import thesis.model.domain.components.ClassUnitFastIdFactory;
+import thesis.model.domain.components.RoomFastIdFactory;
+import thesis.model.domain.components.ScheduledLesson;
+import thesis.model.domain.components.TimeFactory;
+import thesis.model.exceptions.CheckedIllegalArgumentException;
+import thesis.model.solver.core.DefaultISGSolution;
+import thesis.model.solver.core.DefaultISGValue;
 import thesis.model.solver.core.DefaultISGVariable;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class VariableTest {
     @Test
     public void testEquals() {
-        ClassUnit cls1 = new ClassUnit("1");
-        ClassUnit cls2 = new ClassUnit("2");
-        ClassUnit cls3 = new ClassUnit("3");
+        ClassUnit cls1 = ClassUnitFastIdFactory.createClassUnit("1");
+        ClassUnit cls2 = ClassUnitFastIdFactory.createClassUnit("2");
+        ClassUnit cls3 = ClassUnitFastIdFactory.createClassUnit("3");
 
         DefaultISGVariable variable1 = new DefaultISGVariable(cls1);
         DefaultISGVariable anotherVariable1 = new DefaultISGVariable(cls1);
@@ -30,4 +38,40 @@ public class VariableTest {
             }
         }
     }
+
+    @Test
+    public void testRemovals() throws CheckedIllegalArgumentException {
+        InMemoryRepository repository = new DataRepository("test");
+        repository.setConfiguration((short) 7, 8, (short) 288);
+        repository.setOptimizationParameters((short) 1, (short) 1, (short) 1);
+        repository.addRoom(RoomFastIdFactory.createRoom("variableTestRoom1"));
+
+        ClassUnit cls = ClassUnitFastIdFactory.createClassUnit("1");
+        cls.addClassTime((short) 1, 255, (short) 10, (short) 10, 0);
+        cls.addClassTime((short) 1, 255, (short) 30, (short) 10, 0);
+        cls.addRoom("variableTestRoom1", 0);
+        repository.addClassUnit(cls);
+
+        DefaultISGSolution solution = new DefaultISGSolution(repository);
+        DefaultISGVariable variable = new DefaultISGVariable(cls);
+        variable.setSolution(solution);
+        solution.addUnassignedVariable(variable);
+
+        DefaultISGValue value = variable.getValues().get(1);
+        assertEquals(0, value.getRemovals());
+
+        variable.assign(value);
+        variable.unassign();
+        variable.assign(value);
+        variable.unassign();
+        assertEquals(2, value.getRemovals());
+        assertEquals(0, variable.getValues().get(0).getRemovals());
+
+        // Values created outside the list of values share the count of the equal value
+        DefaultISGValue sameValue = new DefaultISGValue(variable, new ScheduledLesson(cls.getClassId(), "variableTestRoom1", value.value().getScheduledTime()));
+        assertEquals(2, sameValue.getRemovals());
+
+        variable.deactivateRemovals();
+        assertThrows(IllegalStateException.class, value::getRemovals);
+    }
 }
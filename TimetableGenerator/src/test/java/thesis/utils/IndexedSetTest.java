@@ -0,0 +1,67 @@
+package thesis.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedSetTest {
+    @Test
+    public void testAddAndRemove() {
+        IndexedSet<Integer> set = new IndexedSet<>();
+        Set<Integer> expected = new HashSet<>();
+        for(int i = 0; i < 40; i++) {
+            assertTrue(set.add(i));
+            expected.add(i);
+        }
+        assertFalse(set.add(5));
+
+        // Removes from the start, the middle and the end
+        assertTrue(set.remove(0));
+        assertTrue(set.remove(20));
+        assertTrue(set.remove(39));
+        assertFalse(set.remove(20));
+        expected.remove(0);
+        expected.remove(20);
+        expected.remove(39);
+
+        assertEquals(expected, set);
+        assertEquals(expected.size(), set.size());
+
+        // Every index has a different element of the set
+        Set<Integer> indexed = new HashSet<>();
+        for(int i = 0; i < set.size(); i++) {
+            indexed.add(set.get(i));
+        }
+        assertEquals(expected, indexed);
+        assertThrows(IndexOutOfBoundsException.class, () -> set.get(set.size()));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        IndexedSet<Integer> set = new IndexedSet<>();
+        for(int i = 0; i < 10; i++) {
+            set.add(i);
+        }
+
+        // The elements moved to the position of the removed ones must still be visited
+        Set<Integer> visited = new HashSet<>();
+        Iterator<Integer> iterator = set.iterator();
+        while(iterator.hasNext()) {
+            int value = iterator.next();
+            visited.add(value);
+            if(value % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(10, visited.size());
+        assertEquals(Set.of(1, 3, 5, 7, 9), set);
+        for(int value : set) {
+            assertTrue(set.contains(value));
+        }
+    }
+}